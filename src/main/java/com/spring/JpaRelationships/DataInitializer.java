@@ -3,27 +3,64 @@ package com.spring.JpaRelationships;
 import com.spring.JpaRelationships.dto.CourseDto;
 import com.spring.JpaRelationships.mapper.CourseMapper;
 import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.service.SyntheticDataGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 
+/**
+ * Seeds the default courses into an empty database, and with {@code data-generator.enabled} a
+ * synthetic dataset of {@code data-generator.scale} into a database without students. When
+ * {@code data-initializer.deferred} is set, as in the fast-startup profile, seeding runs in the
+ * background so the application starts serving without waiting for it; the course catalog picks
+ * the courses up once they commit.
+ */
 @Component
 @RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
 public class DataInitializer implements CommandLineRunner {
     private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
     private final CourseMapper mapper;
+    private final SyntheticDataGenerator generator;
+
+    @Value("${data-initializer.deferred:false}")
+    private boolean deferred;
+
+    @Value("${data-generator.enabled:false}")
+    private boolean generate;
+
+    @Value("${data-generator.seed:42}")
+    private long seed;
+
+    @Value("${data-generator.scale:1}")
+    private double scale;
 
     @Override
     public void run(String... args) {
+        if (deferred) {
+            Thread thread = new Thread(this::seed, "data-initializer");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            seed();
+        }
+    }
+
+    private void seed() {
         if (courseRepository.count() == 0){
             courseRepository.saveAll(Arrays.asList(
-                    mapper.toEntity(new CourseDto("JV", "Java")),
-                    mapper.toEntity(new CourseDto("SB", "Spring Boot")),
-                    mapper.toEntity(new CourseDto("JS", "Java Script"))
+                    mapper.toEntity(new CourseDto("JV", "Java", 0)),
+                    mapper.toEntity(new CourseDto("SB", "Spring Boot", 0)),
+                    mapper.toEntity(new CourseDto("JS", "Java Script", 0))
             ));
         }
+        if (generate && studentRepository.count() == 0) {
+            generator.generate(seed, scale);
+        }
     }
 }
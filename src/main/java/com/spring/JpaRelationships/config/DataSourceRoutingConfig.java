@@ -0,0 +1,89 @@
+package com.spring.JpaRelationships.config;
+
+import com.spring.JpaRelationships.routing.ReadWriteRoutingDataSource;
+import com.spring.JpaRelationships.routing.ReadYourWritesFilter;
+import com.spring.JpaRelationships.routing.ReadYourWritesWindow;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces Spring Boot's single pool with a primary and a pool per read replica when
+ * {@code datasource.routing.enabled} is set. Every pool takes the {@code spring.datasource.hikari}
+ * settings and publishes its own {@code hikaricp.*} meters under its pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow(DataSourceRoutingProperties properties) {
+        return new ReadYourWritesWindow(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesWindow window) {
+        return new ReadYourWritesFilter(window);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                                 DataSourceRoutingProperties properties,
+                                                 ReadYourWritesWindow window,
+                                                 MeterRegistry registry,
+                                                 Environment environment) {
+        if (properties.getReplicas().isEmpty()) {
+            throw new IllegalStateException("datasource.routing.enabled is set but no datasource.routing.replicas are configured");
+        }
+
+        HikariDataSource primary = pool("primary", dataSourceProperties.initializeDataSourceBuilder(), registry, environment);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            boolean ownCredentials = replica.getUsername() != null;
+
+            replicas.add(pool("replica-" + i, DataSourceBuilder.create()
+                    .url(replica.getUrl())
+                    .username(ownCredentials ? replica.getUsername() : dataSourceProperties.determineUsername())
+                    .password(ownCredentials ? replica.getPassword() : dataSourceProperties.determinePassword()), registry, environment));
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas, window, registry);
+    }
+
+    /**
+     * Spring holds the JDBC connection for the whole open-in-view session by default, which would
+     * pin every transaction of a request to whichever pool served the first one.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer routingConnectionHandlingCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private HikariDataSource pool(String name, DataSourceBuilder<?> builder, MeterRegistry registry, Environment environment) {
+        HikariDataSource pool = builder.type(HikariDataSource.class).build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return pool;
+    }
+}
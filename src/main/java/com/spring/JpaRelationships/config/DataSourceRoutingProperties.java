@@ -0,0 +1,26 @@
+package com.spring.JpaRelationships.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+    private boolean enabled;
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * A replica without credentials uses the primary's.
+     */
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
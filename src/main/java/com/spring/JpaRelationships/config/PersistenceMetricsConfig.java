@@ -0,0 +1,111 @@
+package com.spring.JpaRelationships.config;
+
+import com.spring.JpaRelationships.metrics.PersistenceEventCounter;
+import com.spring.JpaRelationships.metrics.PersistenceMetricsFilter;
+import com.spring.JpaRelationships.metrics.PersistenceStatementCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request persistence metrics and cache hit ratios, on top of the repository invocation
+ * timers and Hibernate statistics meters that Spring Boot Actuator publishes. Nothing here is
+ * registered, and Hibernate collects no statistics, unless {@code metrics.persistence.enabled} is set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "metrics.persistence.enabled", havingValue = "true")
+public class PersistenceMetricsConfig {
+
+    @Bean
+    public PersistenceEventCounter persistenceEventCounter() {
+        return new PersistenceEventCounter();
+    }
+
+    /**
+     * Counts statements at the data source, so those JdbcTemplate sends, such as enrollment batches
+     * and version bumps, are counted along with Hibernate's. A data source that is already proxied
+     * gets the counter added to its listeners.
+     */
+    @Bean
+    public static BeanPostProcessor persistenceStatementCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ProxyDataSource proxyDataSource) {
+                    proxyDataSource.addListener(new PersistenceStatementCounter());
+                    return bean;
+                }
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new PersistenceStatementCounter())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer persistenceStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+
+    @Bean
+    public InitializingBean persistenceEventListenerRegistration(EntityManagerFactory entityManagerFactory,
+                                                                 PersistenceEventCounter counter) {
+        return () -> counter.register(entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class));
+    }
+
+    @Bean
+    public PersistenceMetricsFilter persistenceMetricsFilter(MeterRegistry registry) {
+        return new PersistenceMetricsFilter(registry);
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                stats -> ratio(stats.getCacheRegionStatistics(region)))
+                        .description("Share of second-level cache lookups that were hits")
+                        .tag("region", region)
+                        .register(registry);
+            }
+
+            Gauge.builder("hibernate.query.cache.hit.ratio", statistics,
+                            stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                    .description("Share of query cache lookups that were hits")
+                    .register(registry);
+        };
+    }
+
+    private static double ratio(CacheRegionStatistics statistics) {
+        return statistics == null ? Double.NaN : ratio(statistics.getHitCount(), statistics.getMissCount());
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : hits / (double) (hits + misses);
+    }
+}
@@ -0,0 +1,55 @@
+package com.spring.JpaRelationships.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+    public static final String COURSES = "courses";
+    public static final String STUDENT_COURSES = "student-courses";
+    public static final String COURSE_STUDENTS = "course-students";
+
+    /**
+     * Every application context gets its own cache manager, so contexts pointing at
+     * different databases never see each other's cached rows.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        properties.getRegions().forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> configuration(SecondLevelCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+        configuration.setStatisticsEnabled(true);
+
+        if (region.getTtl() != null) {
+            configuration.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(
+                    new Duration(TimeUnit.MILLISECONDS, region.getTtl().toMillis())));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,20 @@
+package com.spring.JpaRelationships.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "cache.second-level")
+public class SecondLevelCacheProperties {
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        private long maxSize = 10_000;
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,63 @@
+package com.spring.JpaRelationships.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Active in virtual-thread mode. Streams the JFR {@code jdk.VirtualThreadPinned} event so that
+ * blocking inside {@code synchronized} code or native frames, for example in a JDBC driver, shows
+ * up in the log with the pinning stack instead of silently capping throughput.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final LongAdder pinnedCount = new LongAdder();
+    private RecordingStream stream;
+
+    @Value("${threads.virtual.pinning-threshold:20ms}")
+    private Duration threshold;
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+
+        if (log.isWarnEnabled()) {
+            String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                    .limit(20)
+                    .map(RecordedFrame::toString)
+                    .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+            log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+        }
+    }
+}
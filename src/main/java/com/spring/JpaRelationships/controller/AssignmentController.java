@@ -1,14 +1,18 @@
 package com.spring.JpaRelationships.controller;
 
 import com.spring.JpaRelationships.dto.AssignmentDto;
+import com.spring.JpaRelationships.dto.AssignmentRowDto;
 import com.spring.JpaRelationships.entity.Assignment;
 import com.spring.JpaRelationships.service.AssignmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -21,12 +25,31 @@ public class AssignmentController {
     private final String ASSIGNMENT_PATH = "/assignments/{assignmentId}";
 
     @GetMapping("/assignments")
-    public ResponseEntity<List<Assignment>> getAllAssignments(){
-        List<Assignment> assignments = service.findAll();
+    public ResponseEntity<List<Assignment>> getAllAssignments(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "100") int limit){
+        return service.findPage(cursor, limit).toResponse();
+    }
 
-        return assignments.isEmpty() ?
-                ResponseEntity.noContent().build() :
-                ResponseEntity.ok(assignments);
+    @GetMapping(value = "/assignments", params = {"dueFrom", "dueTo"})
+    public ResponseEntity<List<AssignmentRowDto>> getDueBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "100") int limit){
+        return service.findDueBetween(dueFrom, dueTo, cursor, limit).toResponse();
+    }
+
+    @GetMapping(ASSIGNMENT_PATH)
+    public ResponseEntity<Assignment> getAssignment(@PathVariable Long assignmentId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            Long version = service.findVersion(assignmentId);
+            if (ETags.matches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+        }
+
+        Assignment assignment = service.findById(assignmentId);
+        return ResponseEntity.ok().eTag(ETags.of(assignment.getVersion())).body(assignment);
     }
 
     @GetMapping(STUDENT_PATH + "/assignments")
@@ -37,6 +60,15 @@ public class AssignmentController {
                 ResponseEntity.ok(assignments);
     }
 
+    @GetMapping(value = STUDENT_PATH + "/assignments", params = {"dueFrom", "dueTo"})
+    public ResponseEntity<List<AssignmentRowDto>> getDueBetweenByStudentId(@PathVariable Long studentId,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "100") int limit){
+        return service.findDueBetweenByStudentId(studentId, dueFrom, dueTo, cursor, limit).toResponse();
+    }
+
     @PostMapping(STUDENT_PATH + "/assignments")
     public ResponseEntity<List<Assignment>> createAll(@PathVariable Long studentId, @RequestBody List<AssignmentDto> dtoList){
         List<Assignment> createdAssignments = service.saveAll(studentId, dtoList);
@@ -57,15 +89,17 @@ public class AssignmentController {
 
     @PutMapping(ASSIGNMENT_PATH)
     public ResponseEntity<Assignment> updateAssignment(@PathVariable Long assignmentId,
-                                                       @RequestBody AssignmentDto dto){
-        Assignment updatedAssignment = service.updateAssignment(assignmentId, dto);
-        return ResponseEntity.ok(updatedAssignment);
+                                                       @RequestBody AssignmentDto dto,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Assignment updatedAssignment = service.updateAssignment(assignmentId, dto, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedAssignment.getVersion())).body(updatedAssignment);
     }
 
     @PatchMapping(ASSIGNMENT_PATH)
     public ResponseEntity<Assignment> patchAssignment(@PathVariable Long assignmentId,
-                                                      @RequestBody AssignmentDto dto){
-        Assignment patchedAssignment = service.patchAssignment(assignmentId, dto);
-        return ResponseEntity.ok(patchedAssignment);
+                                                      @RequestBody AssignmentDto dto,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Assignment patchedAssignment = service.patchAssignment(assignmentId, dto, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedAssignment.getVersion())).body(patchedAssignment);
     }
 }
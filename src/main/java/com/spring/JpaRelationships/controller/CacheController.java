@@ -0,0 +1,24 @@
+package com.spring.JpaRelationships.controller;
+
+import com.spring.JpaRelationships.dto.CacheRegionStatsDto;
+import com.spring.JpaRelationships.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+@RequestMapping("/api/cache")
+public class CacheController {
+    private final CacheStatisticsService service;
+
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStatsDto>> getStatistics(){
+        return ResponseEntity.ok(service.findAll());
+    }
+}
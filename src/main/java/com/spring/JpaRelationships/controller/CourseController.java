@@ -1,11 +1,14 @@
 package com.spring.JpaRelationships.controller;
 
 import com.spring.JpaRelationships.dto.CourseDto;
+import com.spring.JpaRelationships.dto.EnrollmentResultDto;
 import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.service.CourseCatalog;
 import com.spring.JpaRelationships.service.CourseService;
 import com.spring.JpaRelationships.service.EnrollmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,19 +22,28 @@ public class CourseController {
     private final EnrollmentService enrollmentService;
 
     @GetMapping
-    public ResponseEntity<List<CourseDto>> getAll(){
-        List<CourseDto> courses = service.findAll();
-        return courses.isEmpty() ?
+    public ResponseEntity<byte[]> getAll(){
+        CourseCatalog catalog = service.findCatalog();
+        return catalog.isEmpty() ?
                 ResponseEntity.noContent().build() :
-                ResponseEntity.ok(courses);
+                ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(catalog.json());
+    }
+
+    @GetMapping("/{courseId}")
+    public ResponseEntity<CourseDto> getById(@PathVariable Long courseId){
+        return ResponseEntity.ok(service.findDtoById(courseId));
+    }
+
+    @GetMapping(params = "code")
+    public ResponseEntity<CourseDto> getByCode(@RequestParam String code){
+        return ResponseEntity.ok(service.findDtoByCode(code));
     }
 
     @GetMapping("/{courseId}/students")
-    public ResponseEntity<List<StudentDto>> getStudents(@PathVariable Long courseId){
-        List<StudentDto> students = service.findAllStudents(courseId);
-        return students.isEmpty() ?
-                ResponseEntity.noContent().build() :
-                ResponseEntity.ok(students);
+    public ResponseEntity<List<StudentDto>> getStudents(@PathVariable Long courseId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "100") int limit){
+        return service.findStudentsPage(courseId, cursor, limit).toResponse();
     }
 
     @PostMapping("/{courseId}/students")
@@ -41,6 +53,25 @@ public class CourseController {
         return ResponseEntity.ok("Student was added successfully.");
     }
 
+    @PostMapping("/{courseId}/students/bulk")
+    public ResponseEntity<List<EnrollmentResultDto>> addStudents(@PathVariable Long courseId,
+                                                                 @RequestBody List<Long> studentIds){
+        return ResponseEntity.ok(enrollmentService.enrollStudents(courseId, studentIds));
+    }
+
+    @DeleteMapping("/{courseId}/students/bulk")
+    public ResponseEntity<List<EnrollmentResultDto>> deleteStudents(@PathVariable Long courseId,
+                                                                    @RequestBody List<Long> studentIds){
+        return ResponseEntity.ok(enrollmentService.unenrollStudents(courseId, studentIds));
+    }
+
+    @PostMapping("/{courseId}/students/move")
+    public ResponseEntity<List<EnrollmentResultDto>> moveStudents(@PathVariable Long courseId,
+                                                                  @RequestParam Long targetCourseId,
+                                                                  @RequestBody List<Long> studentIds){
+        return ResponseEntity.ok(enrollmentService.moveStudents(courseId, targetCourseId, studentIds));
+    }
+
     @DeleteMapping("/{courseId}/students")
     public ResponseEntity<Void> deleteStudent(@PathVariable Long courseId,
                                              @RequestParam Long studentId){
@@ -0,0 +1,50 @@
+package com.spring.JpaRelationships.controller;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+final class ETags {
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak comparison as used for {@code If-None-Match}: any listed tag, or {@code *}, matches.
+     */
+    static boolean matches(String ifNoneMatch, Long version) {
+        String current = of(version);
+
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(current));
+    }
+
+    /**
+     * Reads the versions an {@code If-Match} header accepts, or null when the header is absent or
+     * {@code *}. Weak or malformed tags can never match a strong ETag, so they are left out.
+     */
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        Set<Long> versions = new HashSet<>();
+        for (String listed : ifMatch.split(",")) {
+            String tag = listed.trim();
+            if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.valueOf(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException ex) {
+                // Not one of our tags, so it matches no version.
+            }
+        }
+        return versions;
+    }
+}
@@ -1,16 +1,25 @@
 package com.spring.JpaRelationships.controller;
 
 import com.spring.JpaRelationships.dto.CourseDto;
+import com.spring.JpaRelationships.dto.EnrollmentResultDto;
+import com.spring.JpaRelationships.dto.ImportSummaryDto;
 import com.spring.JpaRelationships.dto.StudentDto;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.service.EnrollmentService;
+import com.spring.JpaRelationships.service.StudentExportService;
+import com.spring.JpaRelationships.service.StudentImportService;
 import com.spring.JpaRelationships.service.StudentService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,6 +28,8 @@ import java.util.List;
 public class StudentController {
     private final StudentService service;
     private final EnrollmentService enrollmentService;
+    private final StudentImportService importService;
+    private final StudentExportService exportService;
 
     @PostMapping
     public ResponseEntity<Student> createStudent(@RequestBody StudentDto dto){
@@ -27,6 +38,18 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedStudent);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportSummaryDto> importNdjson(InputStream body) throws IOException {
+        ImportSummaryDto summary = importService.importStudents(body, StudentImportService.Format.NDJSON);
+        return ResponseEntity.ok(summary);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportSummaryDto> importCsv(InputStream body) throws IOException {
+        ImportSummaryDto summary = importService.importStudents(body, StudentImportService.Format.CSV);
+        return ResponseEntity.ok(summary);
+    }
+
     @PostMapping("/{studentId}/courses")
     public ResponseEntity<String> addCourse(@PathVariable Long studentId,
                                             @RequestParam Long courseId){
@@ -34,20 +57,63 @@ public class StudentController {
         return ResponseEntity.ok("Course was successfully added.");
     }
 
+    @PostMapping("/{studentId}/courses/bulk")
+    public ResponseEntity<List<EnrollmentResultDto>> addCourses(@PathVariable Long studentId,
+                                                                @RequestBody List<Long> courseIds){
+        return ResponseEntity.ok(enrollmentService.enrollInCourses(studentId, courseIds));
+    }
+
+    @DeleteMapping("/{studentId}/courses/bulk")
+    public ResponseEntity<List<EnrollmentResultDto>> deleteCourses(@PathVariable Long studentId,
+                                                                   @RequestBody List<Long> courseIds){
+        return ResponseEntity.ok(enrollmentService.unenrollFromCourses(studentId, courseIds));
+    }
+
     @GetMapping
-    public ResponseEntity<?> getAll(){
-        List<Student> students = service.findAll();
+    public ResponseEntity<List<Student>> getAll(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "100") int limit){
+        return service.findPage(cursor, limit).toResponse();
+    }
 
-        return students.isEmpty() ?
-                ResponseEntity.noContent().build() :
-                ResponseEntity.ok(students);
+    @GetMapping(params = "email")
+    public ResponseEntity<Student> getByEmail(@RequestParam String email){
+        Student foundStudent = service.findByEmail(email);
+
+        return ResponseEntity.ok().eTag(ETags.of(foundStudent.getVersion())).body(foundStudent);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<StudentDto>> search(@RequestParam(required = false) String name,
+                                                   @RequestParam(required = false) String city,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "100") int limit){
+        return service.search(name, city, cursor, limit).toResponse();
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "JSON") StudentExportService.Format format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = format == StudentExportService.Format.CSV;
+
+        response.setContentType(csv ? "text/csv" : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=students." + (csv ? "csv" : "json"));
+        exportService.export(format, response.getOutputStream());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Student> getStudent(@PathVariable Long id){
+    public ResponseEntity<Student> getStudent(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            Long version = service.findVersion(id);
+            if (ETags.matches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+        }
+
         Student foundStudent = service.findById(id);
 
-        return ResponseEntity.ok(foundStudent);
+        return ResponseEntity.ok().eTag(ETags.of(foundStudent.getVersion())).body(foundStudent);
     }
 
     @GetMapping("/{studentId}/courses")
@@ -74,15 +140,17 @@ public class StudentController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Student> updateStudent(@PathVariable Long id,
-                                                 @RequestBody StudentDto studentDto) {
-        Student updatedStudent = service.updateById(id, studentDto);
-        return ResponseEntity.ok(updatedStudent);
+                                                 @RequestBody StudentDto studentDto,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Student updatedStudent = service.updateById(id, studentDto, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedStudent.getVersion())).body(updatedStudent);
     }
 
     @PatchMapping("/{id}")
     public ResponseEntity<Student> patchStudent(@PathVariable Long id,
-                                                @RequestBody StudentDto studentDto) {
-        Student updatedStudent = service.patchById(id, studentDto);
-        return ResponseEntity.ok(updatedStudent);
+                                                @RequestBody StudentDto studentDto,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Student updatedStudent = service.patchById(id, studentDto, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedStudent.getVersion())).body(updatedStudent);
     }
 }
@@ -0,0 +1,16 @@
+package com.spring.JpaRelationships.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class AssignmentRowDto implements Serializable {
+    private Long id;
+    private String title;
+    private LocalDate dueDate;
+    private Long studentId;
+}
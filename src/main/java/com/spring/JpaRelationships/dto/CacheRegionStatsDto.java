@@ -0,0 +1,15 @@
+package com.spring.JpaRelationships.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+public class CacheRegionStatsDto implements Serializable {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+}
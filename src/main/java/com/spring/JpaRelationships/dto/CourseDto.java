@@ -12,4 +12,5 @@ import java.io.Serializable;
 public class CourseDto implements Serializable {
     private String code;
     private String name;
+    private long enrollmentCount;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.spring.JpaRelationships.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+public class EnrollmentResultDto implements Serializable {
+    private Long id;
+    private Outcome outcome;
+
+    public enum Outcome {
+        ENROLLED,
+        UNENROLLED,
+        MOVED,
+        ALREADY_ENROLLED,
+        NOT_ENROLLED,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,16 @@
+package com.spring.JpaRelationships.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ImportChunkDto implements Serializable {
+    private int chunk;
+    private int accepted;
+    private int rejected;
+    private List<String> errors;
+}
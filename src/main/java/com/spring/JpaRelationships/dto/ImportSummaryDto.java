@@ -0,0 +1,15 @@
+package com.spring.JpaRelationships.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ImportSummaryDto implements Serializable {
+    private int accepted;
+    private int rejected;
+    private List<ImportChunkDto> chunks;
+}
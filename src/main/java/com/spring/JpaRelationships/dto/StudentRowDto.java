@@ -0,0 +1,17 @@
+package com.spring.JpaRelationships.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+public class StudentRowDto implements Serializable {
+    private Long id;
+    private String name;
+    private String email;
+    private String street;
+    private String zipCode;
+    private String city;
+}
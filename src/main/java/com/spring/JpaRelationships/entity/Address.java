@@ -14,7 +14,8 @@ import lombok.*;
 public class Address {
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_seq")
+    @SequenceGenerator(name = "address_seq", sequenceName = "addresses_seq", allocationSize = 50)
     private Long id;
 
     private String street;
@@ -15,7 +15,8 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class Assignment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "assignment_seq")
+    @SequenceGenerator(name = "assignment_seq", sequenceName = "assignments_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -25,4 +26,7 @@ public class Assignment {
     @JoinColumn(name = "student_id")
     @JsonBackReference(value = "student-assignment")
     private Student student;
+
+    @Version
+    private Long version;
 }
@@ -1,14 +1,23 @@
 package com.spring.JpaRelationships.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.spring.JpaRelationships.service.CourseCatalogListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.annotations.QueryCacheLayout;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "courses")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
+// Cached queries keep only the ids, so a course evicted from its region is never served stale by them.
+@QueryCacheLayout(layout = CacheLayout.SHALLOW)
+@EntityListeners(CourseCatalogListener.class)
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
@@ -17,12 +26,18 @@ import java.util.Set;
 public class Course {
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
+    @SequenceGenerator(name = "course_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
 
     private String code;
     private String name;
 
+    // Only ever changed by relative updates in EnrollmentCounts, so Hibernate never writes it back.
+    @Column(name = "enrollment_count", nullable = false, updatable = false)
+    private long enrollmentCount;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-students")
     @ManyToMany(mappedBy = "courses", fetch = FetchType.LAZY)
     @JsonBackReference(value = "student-course")
     private Set<Student> students = new HashSet<>();
@@ -1,8 +1,12 @@
 package com.spring.JpaRelationships.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.spring.JpaRelationships.service.StudentEmailListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -20,11 +24,12 @@ import java.util.Set;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, StudentEmailListener.class})
 public class Student {
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -36,6 +41,7 @@ public class Student {
     private Address address;
 
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 1000)
     @JsonManagedReference(value = "student-assignment")
     private List<Assignment> assignments = new ArrayList<>();
 
@@ -43,6 +49,8 @@ public class Student {
     @JoinTable(name = "student_course",
             joinColumns = @JoinColumn(name = "student_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "course_id", referencedColumnName = "id"))
+    @BatchSize(size = 1000)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-courses")
     @JsonManagedReference(value = "student-course")
     private Set<Course> courses = new HashSet<>();
 
@@ -53,4 +61,7 @@ public class Student {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
 }
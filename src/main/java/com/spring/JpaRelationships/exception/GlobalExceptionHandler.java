@@ -1,12 +1,22 @@
 package com.spring.JpaRelationships.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    private static final String UNIQUE_VIOLATION = "23505";
+    // The unique email index, and the student_course primary key, whose name depends on the database.
+    private static final List<String> CONFLICTING_KEYS = List.of("uk_students_email", "student_course");
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> handleResourceNotFound(ResourceNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
@@ -16,4 +26,49 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleUniqueField(UniqueFieldException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
+
+    // A write that raced past a uniqueness check: two students created with one email, or the same
+    // enrollment inserted twice. Any other violation is rethrown, since it is a bug rather than a conflict.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (!violatesUniqueKey(ex)) {
+            throw ex;
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Resource conflicts with existing data");
+    }
+
+    private static boolean violatesUniqueKey(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                String message = String.valueOf(sqlException.getMessage()).toLowerCase(Locale.ROOT);
+                return CONFLICTING_KEYS.stream().anyMatch(message::contains);
+            }
+        }
+        return false;
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Resource was modified concurrently");
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSearchException.class)
+    public ResponseEntity<String> handleInvalidSearch(InvalidSearchException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<String> handleInvalidImport(InvalidImportException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
 }
@@ -0,0 +1,7 @@
+package com.spring.JpaRelationships.exception;
+
+public class InvalidImportException extends RuntimeException{
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -9,12 +9,15 @@ import org.mapstruct.*;
 public interface AssignmentMapper {
     @Mapping(target = "student", source = "student")
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Assignment toEntity(AssignmentDto dto, Student student);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateAssignmentFromDto(AssignmentDto dto, @MappingTarget Assignment assignment);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void patchAssignmentFromDto(AssignmentDto dto, @MappingTarget Assignment assignment);
 }
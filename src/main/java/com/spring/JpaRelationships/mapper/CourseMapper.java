@@ -3,9 +3,11 @@ package com.spring.JpaRelationships.mapper;
 import com.spring.JpaRelationships.dto.CourseDto;
 import com.spring.JpaRelationships.entity.Course;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface CourseMapper {
+    @Mapping(target = "enrollmentCount", ignore = true)
     Course toEntity(CourseDto dto);
 
     CourseDto toDto(Course course);
@@ -1,6 +1,8 @@
 package com.spring.JpaRelationships.mapper;
 
+import com.spring.JpaRelationships.dto.AddressDto;
 import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.dto.StudentRowDto;
 import com.spring.JpaRelationships.entity.Student;
 import org.mapstruct.*;
 
@@ -8,15 +10,33 @@ import org.mapstruct.*;
 public interface StudentMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "address", qualifiedBy = MappingQualifiers.UpdateMapping.class)
     void updateStudentFromDto(StudentDto dto, @MappingTarget Student student);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "address", qualifiedBy = MappingQualifiers.PatchMapping.class)
     void patchStudentFromDto(StudentDto dto, @MappingTarget Student student);
 
     StudentDto toDto(Student student);
 
+    @Mapping(target = "version", ignore = true)
     Student toEntity(StudentDto dto);
+
+    default StudentDto toDto(StudentRowDto row) {
+        AddressDto address = row.getStreet() == null && row.getZipCode() == null && row.getCity() == null ? null :
+                AddressDto.builder()
+                        .street(row.getStreet())
+                        .zipCode(row.getZipCode())
+                        .city(row.getCity())
+                        .build();
+
+        return StudentDto.builder()
+                .name(row.getName())
+                .email(row.getEmail())
+                .address(address)
+                .build();
+    }
 }
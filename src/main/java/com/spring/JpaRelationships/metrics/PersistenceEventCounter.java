@@ -0,0 +1,51 @@
+package com.spring.JpaRelationships.metrics;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Feeds {@link PersistenceRequestStats} from Hibernate: entity loads, writes and lazy collection
+ * loads through event listeners. Statements are counted by {@link PersistenceStatementCounter}.
+ */
+public class PersistenceEventCounter implements PostLoadEventListener, PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener, InitializeCollectionEventListener {
+
+    public void register(EventListenerRegistry registry) {
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        PersistenceRequestStats.entityLoaded();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        PersistenceRequestStats.entityFlushed();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        PersistenceRequestStats.entityFlushed();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        PersistenceRequestStats.entityFlushed();
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        PersistenceRequestStats.collectionFetched();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.spring.JpaRelationships.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the database work of each request as distribution summaries tagged with the
+ * request method and the matched URI template.
+ */
+@RequiredArgsConstructor
+public class PersistenceMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PersistenceRequestStats stats = PersistenceRequestStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PersistenceRequestStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, PersistenceRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        summary("hibernate.request.statements", "JDBC statements executed per request", tags).record(stats.getStatements());
+        summary("hibernate.request.entities.loaded", "Entities loaded per request", tags).record(stats.getEntitiesLoaded());
+        summary("hibernate.request.entities.flushed", "Entities inserted, updated or deleted per request", tags).record(stats.getEntitiesFlushed());
+        summary("hibernate.request.collections.fetched", "Lazy collections loaded per request", tags).record(stats.getCollectionsFetched());
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.spring.JpaRelationships.metrics;
+
+/**
+ * Database work done while serving the current request. Counting is a no-op on threads that
+ * are not serving a request, such as the catalog refresher.
+ */
+public final class PersistenceRequestStats {
+    private static final ThreadLocal<PersistenceRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entitiesLoaded;
+    private int entitiesFlushed;
+    private int collectionsFetched;
+
+    private PersistenceRequestStats() {
+    }
+
+    static PersistenceRequestStats begin() {
+        PersistenceRequestStats stats = new PersistenceRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted() {
+        PersistenceRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        PersistenceRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    static void entityFlushed() {
+        PersistenceRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesFlushed++;
+        }
+    }
+
+    static void collectionFetched() {
+        PersistenceRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.collectionsFetched++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public int getEntitiesFlushed() {
+        return entitiesFlushed;
+    }
+
+    public int getCollectionsFetched() {
+        return collectionsFetched;
+    }
+}
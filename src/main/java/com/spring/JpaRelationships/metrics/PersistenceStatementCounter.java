@@ -0,0 +1,23 @@
+package com.spring.JpaRelationships.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds {@link PersistenceRequestStats} every statement that reaches the data source, whether
+ * Hibernate or a JdbcTemplate sent it. A JDBC batch counts as one statement.
+ */
+public class PersistenceStatementCounter implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        PersistenceRequestStats.statementExecuted();
+    }
+}
@@ -0,0 +1,48 @@
+package com.spring.JpaRelationships.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, limit);
+        return new CursorPage<>(content, cursorOf.apply(content.getLast()));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        if (content.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return hasNext() ?
+                ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(content) :
+                ResponseEntity.ok(content);
+    }
+}
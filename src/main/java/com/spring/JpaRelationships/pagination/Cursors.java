@@ -0,0 +1,60 @@
+package com.spring.JpaRelationships.pagination;
+
+import com.spring.JpaRelationships.exception.InvalidCursorException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+public final class Cursors {
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+    }
+
+    public static String encode(Object... keys) {
+        String raw = Arrays.stream(keys)
+                .map(key -> key == null ? "" : key.toString())
+                .collect(Collectors.joining(SEPARATOR));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int keyCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = raw.split("\\|", -1);
+
+            if (keys.length != keyCount) {
+                throw new InvalidCursorException("Invalid cursor " + cursor);
+            }
+            return keys;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+    public static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+    public static int clamp(int limit) {
+        return Math.clamp(limit, 1, MAX_LIMIT);
+    }
+
+    public static Limit fetchLimit(int limit) {
+        return Limit.of(clamp(limit) + 1);
+    }
+}
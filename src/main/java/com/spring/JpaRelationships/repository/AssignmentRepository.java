@@ -1,15 +1,49 @@
 package com.spring.JpaRelationships.repository;
 
+import com.spring.JpaRelationships.dto.AssignmentRowDto;
 import com.spring.JpaRelationships.entity.Assignment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
+    // Derived, this joins students and filters on their id, which no assignments index can serve
+    @Query("select a from Assignment a where a.student.id = :studentId")
     List<Assignment> findAllByStudentId(Long studentId);
+    List<Assignment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
     Optional<Assignment> findByStudentIdAndId(Long studentId, Long id);
-    void deleteByStudentId(Long studentId);
+
+    @Query("""
+            select new com.spring.JpaRelationships.dto.AssignmentRowDto(a.id, a.title, a.dueDate, a.student.id)
+            from Assignment a
+            where a.dueDate between :from and :to and (a.dueDate, a.id) > (:afterDueDate, :afterId)
+            order by a.dueDate, a.id""")
+    List<AssignmentRowDto> findRowsDueBetween(LocalDate from, LocalDate to, LocalDate afterDueDate, Long afterId, Limit limit);
+
+    @Query("""
+            select new com.spring.JpaRelationships.dto.AssignmentRowDto(a.id, a.title, a.dueDate, a.student.id)
+            from Assignment a
+            where a.student.id = :studentId
+              and a.dueDate between :from and :to and (a.dueDate, a.id) > (:afterDueDate, :afterId)
+            order by a.dueDate, a.id""")
+    List<AssignmentRowDto> findRowsByStudentIdDueBetween(Long studentId, LocalDate from, LocalDate to,
+                                                         LocalDate afterDueDate, Long afterId, Limit limit);
+
+    @Query("select a.version from Assignment a where a.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Assignment a where a.id = :id")
+    int deleteAssignmentById(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Assignment a where a.student.id = :studentId")
+    int deleteByStudentId(Long studentId);
 }
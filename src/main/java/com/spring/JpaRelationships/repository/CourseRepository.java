@@ -1,9 +1,25 @@
 package com.spring.JpaRelationships.repository;
 
 import com.spring.JpaRelationships.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Course> findAll();
+
+    Optional<Course> findByCode(String code);
+
+    @Query("select c.id from Course c where c.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
 }
@@ -1,9 +1,86 @@
 package com.spring.JpaRelationships.repository;
 
+import com.spring.JpaRelationships.dto.StudentRowDto;
 import com.spring.JpaRelationships.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+    @Override
+    @EntityGraph(attributePaths = "address")
+    Optional<Student> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "address")
+    List<Student> findAll();
+
+    @EntityGraph(attributePaths = "address")
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("""
+            select new com.spring.JpaRelationships.dto.StudentRowDto(s.id, s.name, s.email, a.street, a.zipCode, a.city)
+            from Student s join s.courses c left join s.address a
+            where c.id = :courseId and s.id > :after
+            order by s.id""")
+    List<StudentRowDto> findRowsByCourseIdAfter(Long courseId, Long after, Limit limit);
+
+    @EntityGraph(attributePaths = "address")
+    Optional<Student> findByEmail(String email);
+
+    @Query("select s.id from Student s where s.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("""
+            select new com.spring.JpaRelationships.dto.StudentRowDto(s.id, s.name, s.email, a.street, a.zipCode, a.city)
+            from Student s left join s.address a
+            where s.id in :ids
+            order by s.id""")
+    List<StudentRowDto> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("select s.version from Student s where s.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select s.id from Student s where s.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query(value = "select student_id from student_course where course_id = :courseId and student_id in :studentIds",
+            nativeQuery = true)
+    List<Long> findEnrolledStudentIds(Long courseId, Collection<Long> studentIds);
+
+    @Query(value = "select course_id from student_course where student_id = :studentId and course_id in :courseIds",
+            nativeQuery = true)
+    List<Long> findEnrolledCourseIds(Long studentId, Collection<Long> courseIds);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_course"))
+    @Query(value = """
+            insert into student_course (student_id, course_id)
+            select :studentId, :courseId
+            where not exists (select 1 from student_course where student_id = :studentId and course_id = :courseId)""",
+            nativeQuery = true)
+    int insertEnrollment(Long studentId, Long courseId);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_course"))
+    @Query(value = "delete from student_course where student_id = :studentId and course_id = :courseId", nativeQuery = true)
+    int deleteEnrollment(Long studentId, Long courseId);
+
+    @Modifying
+    @Query("delete from Address a where a.id = :id")
+    int deleteAddressById(Long id);
 }
@@ -0,0 +1,82 @@
+package com.spring.JpaRelationships.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, round robin, and everything else to the primary.
+ * The physical connection is only fetched when the first statement runs, by which point the
+ * transaction manager has marked the transaction read-only. Reads inside an open
+ * {@link ReadYourWritesWindow} stay on the primary, and so do lazy loads outside a transaction.
+ * Every routing decision is counted in {@value #METRIC}, tagged with the pool and the reason.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    public static final String METRIC = "datasource.routing.connections";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      ReadYourWritesWindow window, MeterRegistry registry) {
+        super(new Router(primary, replicas, window, registry));
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private static class Router extends AbstractRoutingDataSource {
+        private final String primary;
+        private final List<String> replicas;
+        private final ReadYourWritesWindow window;
+        private final MeterRegistry registry;
+        private final AtomicInteger next = new AtomicInteger();
+
+        Router(HikariDataSource primary, List<HikariDataSource> replicas, ReadYourWritesWindow window, MeterRegistry registry) {
+            this.primary = primary.getPoolName();
+            this.replicas = replicas.stream().map(HikariDataSource::getPoolName).toList();
+            this.window = window;
+            this.registry = registry;
+
+            Map<Object, Object> targets = new LinkedHashMap<>();
+            targets.put(this.primary, primary);
+            replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(primary);
+            afterPropertiesSet();
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                return route(primary, "non-transactional");
+            }
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                window.recordWrite();
+                return route(primary, "write");
+            }
+            if (window.isOpen()) {
+                return route(primary, "read-your-writes");
+            }
+            return route(replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size())), "read-only");
+        }
+
+        private String route(String key, String reason) {
+            registry.counter(METRIC, "datasource", key, "reason", reason).increment();
+            return key;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.spring.JpaRelationships.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Restores the client's read-your-writes deadline from its cookie for the duration of the request.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private final ReadYourWritesWindow window;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        window.begin(primaryUntil(request), response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            window.end();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, ReadYourWritesWindow.COOKIE);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.spring.JpaRelationships.routing;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for a while after it wrote, so replica lag never hides
+ * its own changes. The deadline travels between requests in the {@value #COOKIE} cookie and is
+ * tracked per thread for the request being served; threads outside a request never open a window.
+ */
+public class ReadYourWritesWindow {
+    public static final String COOKIE = "primary-until";
+
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    private final Duration length;
+    private final Clock clock;
+
+    public ReadYourWritesWindow(Duration length) {
+        this(length, Clock.systemUTC());
+    }
+
+    ReadYourWritesWindow(Duration length, Clock clock) {
+        this.length = length;
+        this.clock = clock;
+    }
+
+    public boolean isOpen() {
+        Session session = CURRENT.get();
+        return session != null && session.primaryUntil > clock.millis();
+    }
+
+    public void recordWrite() {
+        Session session = CURRENT.get();
+        if (session == null) {
+            return;
+        }
+
+        session.primaryUntil = clock.millis() + length.toMillis();
+        if (!session.cookieSent && !session.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(session.primaryUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, length.toSeconds()));
+            session.response.addCookie(cookie);
+            session.cookieSent = true;
+        }
+    }
+
+    // A deadline further out than one window can only be forged, so it is capped.
+    void begin(long primaryUntil, HttpServletResponse response) {
+        CURRENT.set(new Session(Math.min(primaryUntil, clock.millis() + length.toMillis()), response));
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    private static class Session {
+        private final HttpServletResponse response;
+        private long primaryUntil;
+        private boolean cookieSent;
+
+        Session(long primaryUntil, HttpServletResponse response) {
+            this.primaryUntil = primaryUntil;
+            this.response = response;
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.spring.JpaRelationships.service;
 
 import com.spring.JpaRelationships.dto.AssignmentDto;
+import com.spring.JpaRelationships.dto.AssignmentRowDto;
 import com.spring.JpaRelationships.entity.Assignment;
 import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.exception.InvalidCursorException;
+import com.spring.JpaRelationships.exception.PreconditionFailedException;
 import com.spring.JpaRelationships.exception.ResourceNotFoundException;
 import com.spring.JpaRelationships.mapper.AssignmentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
+import com.spring.JpaRelationships.pagination.Cursors;
 import com.spring.JpaRelationships.repository.AssignmentRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
@@ -19,18 +27,46 @@ public class AssignmentService {
     private final AssignmentRepository repository;
     private final StudentService studentService;
     private final AssignmentMapper mapper;
+    private final StudentVersions studentVersions;
 
     private final String ERROR_MESSAGE = "Assignment not found with id ";
 
 
+    @Transactional(readOnly = true)
     public List<Assignment> findAll() {
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Assignment> findPage(String cursor, int limit) {
+        List<Assignment> assignments = repository.findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor), Cursors.fetchLimit(limit));
+
+        return CursorPage.of(assignments, Cursors.clamp(limit), assignment -> Cursors.encode(assignment.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public List<Assignment> findAllByStudentId(Long id){
         return repository.findAllByStudentId(id);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<AssignmentRowDto> findDueBetween(LocalDate from, LocalDate to, String cursor, int limit) {
+        DuePosition after = DuePosition.decode(cursor, from);
+        List<AssignmentRowDto> rows = repository.findRowsDueBetween(from, to, after.dueDate(), after.id(), Cursors.fetchLimit(limit));
+
+        return CursorPage.of(rows, Cursors.clamp(limit), DuePosition::encode);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AssignmentRowDto> findDueBetweenByStudentId(Long studentId, LocalDate from, LocalDate to, String cursor, int limit) {
+        DuePosition after = DuePosition.decode(cursor, from);
+        List<AssignmentRowDto> rows = repository.findRowsByStudentIdDueBetween(studentId, from, to,
+                after.dueDate(), after.id(), Cursors.fetchLimit(limit));
+
+        return CursorPage.of(rows, Cursors.clamp(limit), DuePosition::encode);
+    }
+
+    @Transactional
     public List<Assignment> saveAll(Long studentId, List<AssignmentDto> dtoList) {
         Student foundStudent = studentService.findById(studentId);
 
@@ -38,39 +74,99 @@ public class AssignmentService {
                 .map(dto -> mapper.toEntity(dto, foundStudent))
                 .toList();
 
-        return repository.saveAll(assignments);
+        List<Assignment> savedAssignments = repository.saveAll(assignments);
+        studentVersions.increment(List.of(studentId));
+
+        return savedAssignments;
     }
 
+    @Transactional
     public void deleteById(Long id){
-        if (repository.existsById(id)){
-            repository.deleteById(id);
-        } else {
+        studentVersions.incrementByAssignment(id);
+        if (repository.deleteAssignmentById(id) == 0) {
             throw new ResourceNotFoundException(ERROR_MESSAGE + id);
         }
     }
 
     @Transactional
     public void deleteAllByStudentId(Long studentId) {
-        studentService.findById(studentId);
+        if (!studentVersions.increment(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id " + studentId);
+        }
         repository.deleteByStudentId(studentId);
     }
 
+    @Transactional
     public Assignment updateAssignment(Long assignmentId, AssignmentDto dto) {
-        Assignment foundAssignment = findById(assignmentId);
+        return updateAssignment(assignmentId, dto, null);
+    }
+
+    @Transactional
+    public Assignment updateAssignment(Long assignmentId, AssignmentDto dto, Set<Long> expectedVersions) {
+        Assignment foundAssignment = findCurrent(assignmentId, expectedVersions);
         mapper.updateAssignmentFromDto(dto, foundAssignment);
+        touchStudent(foundAssignment);
 
         return foundAssignment;
     }
 
+    @Transactional
     public Assignment patchAssignment(Long id, AssignmentDto dto){
-        Assignment foundAssignment = findById(id);
+        return patchAssignment(id, dto, null);
+    }
+
+    @Transactional
+    public Assignment patchAssignment(Long id, AssignmentDto dto, Set<Long> expectedVersions){
+        Assignment foundAssignment = findCurrent(id, expectedVersions);
         mapper.patchAssignmentFromDto(dto, foundAssignment);
+        touchStudent(foundAssignment);
 
         return foundAssignment;
     }
 
-    private Assignment findById(Long id){
+    @Transactional(readOnly = true)
+    public Assignment findById(Long id){
         return repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE + id));
     }
+
+    @Transactional(readOnly = true)
+    public Long findVersion(Long id) {
+        return repository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE + id));
+    }
+
+    // Keyset position over (dueDate, id); the first page starts before every id on the first day of the range.
+    private record DuePosition(LocalDate dueDate, long id) {
+        static DuePosition decode(String cursor, LocalDate from) {
+            if (cursor == null || cursor.isBlank()) {
+                return new DuePosition(from, 0L);
+            }
+
+            String[] keys = Cursors.decode(cursor, 2);
+            try {
+                return new DuePosition(LocalDate.parse(keys[0]), Long.parseLong(keys[1]));
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw new InvalidCursorException("Invalid cursor " + cursor);
+            }
+        }
+
+        static String encode(AssignmentRowDto row) {
+            return Cursors.encode(row.getDueDate(), row.getId());
+        }
+    }
+
+    private Assignment findCurrent(Long id, Set<Long> expectedVersions) {
+        Assignment foundAssignment = findById(id);
+        if (expectedVersions != null && !expectedVersions.contains(foundAssignment.getVersion())) {
+            throw new PreconditionFailedException("Assignment with id " + id + " was modified");
+        }
+        return foundAssignment;
+    }
+
+    private void touchStudent(Assignment assignment) {
+        if (assignment.getStudent() != null) {
+            studentVersions.increment(List.of(assignment.getStudent().getId()));
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.spring.JpaRelationships.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of strings over a lock-free bit array. {@link #mightContain} is true for every
+ * string that was put, and for other strings with about the false positive rate it was sized for,
+ * as long as no more than {@code capacity} distinct strings have been put.
+ */
+class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong count = new AtomicLong();
+
+    BloomFilter(long capacity, double falsePositiveRate) {
+        if (capacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("capacity must be positive and the false positive rate between 0 and 1");
+        }
+
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        words = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+        bits = words.length() * 64L;
+        hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return whether the string set a bit, so was not in the filter before
+     */
+    boolean put(String value) {
+        long hash = hash(value);
+        long step = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+        boolean changed = false;
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * step, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                changed |= (words.getAndAccumulate(word, mask, (current, set) -> current | set) & mask) == 0;
+            }
+        }
+
+        if (changed) {
+            count.incrementAndGet();
+        }
+        return changed;
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * step, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the strings put so far, undercounting those whose bits were all set by others
+     */
+    long count() {
+        return count.get();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    // 64-bit FNV-1a over the chars, spread with the SplitMix64 finalizer.
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
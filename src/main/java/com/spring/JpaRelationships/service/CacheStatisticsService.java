@@ -0,0 +1,35 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.CacheRegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class CacheStatisticsService {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDto> findAll() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDto(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private CacheRegionStatsDto toDto(String region, CacheRegionStatistics statistics) {
+        return statistics == null ? null :
+                new CacheRegionStatsDto(region, statistics.getHitCount(), statistics.getMissCount(), statistics.getPutCount());
+    }
+}
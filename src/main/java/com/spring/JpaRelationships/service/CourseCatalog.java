@@ -0,0 +1,19 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.CourseDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every course, indexed by id and code, with the JSON body of
+ * {@code GET /api/courses} serialized once when the snapshot is built.
+ */
+public record CourseCatalog(List<CourseDto> courses,
+                            Map<Long, CourseDto> byId,
+                            Map<String, CourseDto> byCode,
+                            byte[] json) {
+    public boolean isEmpty() {
+        return courses.isEmpty();
+    }
+}
@@ -0,0 +1,35 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.entity.Course;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class CourseCatalogListener {
+    private final ObjectProvider<CourseService> courseService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCourseChanged(Course course) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            courseService.getObject().refreshCatalogAsync();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                courseService.getObject().refreshCatalogAsync();
+            }
+        });
+    }
+}
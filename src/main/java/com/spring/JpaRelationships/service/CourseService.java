@@ -1,41 +1,190 @@
 package com.spring.JpaRelationships.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spring.JpaRelationships.dto.CourseDto;
 import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.dto.StudentRowDto;
 import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.exception.ResourceNotFoundException;
 import com.spring.JpaRelationships.mapper.CourseMapper;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
+import com.spring.JpaRelationships.pagination.Cursors;
 import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
 public class CourseService {
     private final CourseRepository repository;
+    private final StudentRepository studentRepository;
     private final CourseMapper courseMapper;
     private final StudentMapper studentMapper;
+    private final ObjectMapper objectMapper;
 
+    private final ExecutorService catalogRefresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-catalog-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    // A lock rather than synchronized, so a virtual thread loading the catalog is not pinned.
+    private final ReentrantLock catalogLock = new ReentrantLock();
+    private volatile CourseCatalog catalog;
+    private final AtomicLong catalogBuilds = new AtomicLong();
+    // The build the served catalog came from; guarded by catalogLock.
+    private long publishedBuild;
+
+    @Transactional(readOnly = true)
     public Course findById(Long id){
         return repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
     }
 
+    @Transactional(readOnly = true)
     public List<CourseDto> findAll() {
         return repository.findAll().stream()
                 .map(courseMapper::toDto)
                 .toList();
     }
 
+    public CourseCatalog findCatalog() {
+        CourseCatalog current = catalog;
+        if (current == null) {
+            catalogLock.lock();
+            try {
+                current = catalog != null ? catalog : rebuildCatalog();
+            } finally {
+                catalogLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    public CourseDto findDtoById(Long id) {
+        CourseDto course = findCatalog().byId().get(id);
+        return course != null ? course : courseMapper.toDto(findById(id));
+    }
+
+    public CourseDto findDtoByCode(String code) {
+        CourseDto course = findCatalog().byCode().get(code);
+        return course != null ? course : repository.findByCode(code)
+                .map(courseMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+    }
+
+    /**
+     * Rebuilds the catalog in the background. Refreshes requested while one is queued are
+     * coalesced, and if the rebuild fails the previous snapshot keeps being served.
+     */
+    public void refreshCatalogAsync() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            catalogRefresher.execute(() -> {
+                refreshQueued.set(false);
+                try {
+                    rebuildCatalog();
+                } catch (RuntimeException ex) {
+                    log.warn("Course catalog refresh failed, serving previous snapshot", ex);
+                }
+            });
+        }
+    }
+
+    // Waits for the refreshes requested so far, for callers that measure the shared statistics.
+    void awaitCatalogRefresh() throws InterruptedException, ExecutionException {
+        catalogRefresher.submit(() -> { }).get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCatalog() {
+        rebuildCatalog();
+    }
+
+    @PreDestroy
+    void stopCatalogRefresher() {
+        catalogRefresher.shutdownNow();
+    }
+
+    // A build that starts later reads later data, so a build that finishes late, such as a slow
+    // warm-up, does not replace the catalog of one started after it.
+    private CourseCatalog rebuildCatalog() {
+        long build = catalogBuilds.incrementAndGet();
+        CourseCatalog built = buildCatalog();
+
+        catalogLock.lock();
+        try {
+            if (build > publishedBuild) {
+                publishedBuild = build;
+                catalog = built;
+            }
+            return catalog;
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+
+    private CourseCatalog buildCatalog() {
+        List<Course> courses = repository.findAll();
+        Map<Long, CourseDto> byId = new LinkedHashMap<>();
+        Map<String, CourseDto> byCode = new LinkedHashMap<>();
+
+        for (Course course : courses) {
+            CourseDto dto = courseMapper.toDto(course);
+            byId.put(course.getId(), dto);
+            byCode.put(dto.getCode(), dto);
+        }
+
+        List<CourseDto> dtoList = List.copyOf(byId.values());
+        try {
+            return new CourseCatalog(dtoList, Map.copyOf(byId), Map.copyOf(byCode), objectMapper.writeValueAsBytes(dtoList));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize course catalog", ex);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<StudentDto> findAllStudents(Long courseId) {
-        Course course = findById(courseId);
+        checkExists(courseId);
 
-        return course.getStudents().stream()
+        return studentRepository.findRowsByCourseIdAfter(courseId, 0L, Limit.unlimited()).stream()
                 .map(studentMapper::toDto)
                 .toList();
     }
+
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDto> findStudentsPage(Long courseId, String cursor, int limit) {
+        checkExists(courseId);
+
+        List<StudentRowDto> rows = studentRepository.findRowsByCourseIdAfter(courseId, Cursors.decodeId(cursor), Cursors.fetchLimit(limit));
+
+        return CursorPage.of(rows, Cursors.clamp(limit), row -> Cursors.encode(row.getId()))
+                .map(studentMapper::toDto);
+    }
+
+    private void checkExists(Long courseId) {
+        if (!repository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found");
+        }
+    }
 }
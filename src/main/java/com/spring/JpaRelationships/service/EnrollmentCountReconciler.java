@@ -0,0 +1,93 @@
+package com.spring.JpaRelationships.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds courses whose enrollment count has drifted from their student_course rows and recounts
+ * them. Courses are checked in id order, one transaction per batch; drifted rows are locked before
+ * the recount so an enrollment committing in between is not overwritten.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class EnrollmentCountReconciler {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentCounts enrollmentCounts;
+
+    @Value("${courses.enrollment-count.reconcile-batch-size:500}")
+    private int batchSize;
+
+    private static final String BATCH_SQL = """
+            select c.id, c.enrollment_count, count(sc.student_id) as enrolled
+            from (select id, enrollment_count from courses where id > :after order by id limit :limit) c
+            left join student_course sc on sc.course_id = c.id
+            group by c.id, c.enrollment_count
+            order by c.id""";
+
+    private static final String LOCK_SQL = "select id from courses where id in (:ids) for update";
+
+    private static final String RECOUNT_SQL = """
+            update courses set enrollment_count = (select count(*) from student_course sc where sc.course_id = courses.id)
+            where id in (:ids)""";
+
+    /**
+     * @return the number of courses whose count was repaired
+     */
+    @Scheduled(cron = "${courses.enrollment-count.reconcile-cron:0 0 3 * * *}")
+    public int reconcile() {
+        long after = 0;
+        int repaired = 0;
+        Batch batch;
+
+        do {
+            long from = after;
+            batch = transactionTemplate.execute(status -> reconcileBatch(from));
+            repaired += batch.repaired();
+            after = batch.lastId();
+        } while (batch.checked() == batchSize);
+
+        if (repaired > 0) {
+            log.warn("Repaired enrollment count drift on {} courses", repaired);
+        }
+        return repaired;
+    }
+
+    private Batch reconcileBatch(long after) {
+        List<Long> drifted = new ArrayList<>();
+        long[] lastId = {after};
+        int[] checked = {0};
+
+        jdbcTemplate.query(BATCH_SQL, Map.of("after", after, "limit", batchSize), rs -> {
+            long id = rs.getLong("id");
+            if (rs.getLong("enrollment_count") != rs.getLong("enrolled")) {
+                drifted.add(id);
+            }
+            lastId[0] = id;
+            checked[0]++;
+        });
+
+        if (!drifted.isEmpty()) {
+            Map<String, List<Long>> ids = Map.of("ids", drifted);
+            jdbcTemplate.queryForList(LOCK_SQL, ids, Long.class);
+            jdbcTemplate.update(RECOUNT_SQL, ids);
+            enrollmentCounts.changed(drifted);
+        }
+
+        return new Batch(checked[0], drifted.size(), lastId[0]);
+    }
+
+    private record Batch(int checked, int repaired, long lastId) {
+    }
+}
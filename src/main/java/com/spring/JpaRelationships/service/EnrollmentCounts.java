@@ -0,0 +1,98 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.entity.Course;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps {@code courses.enrollment_count} in step with the student_course rows. Every change is a
+ * relative update in the same transaction as the join rows, so it needs no read and concurrent
+ * enrollments never lose an increment. Enrollments written around this class, such as through the
+ * {@code Student.courses} collection, are repaired by {@link EnrollmentCountReconciler}.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class EnrollmentCounts {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CourseService courseService;
+
+    private static final int BATCH_SIZE = 500;
+    private static final String ADD_SQL = "update courses set enrollment_count = enrollment_count + ? where id = ?";
+    private static final String STUDENT_COURSES_SQL = "select course_id from student_course where student_id = ?";
+    private static final String REMOVE_STUDENT_SQL = """
+            update courses set enrollment_count = enrollment_count - 1
+            where id in (select course_id from student_course where student_id = ?)""";
+
+    public void add(Long courseId, int delta) {
+        add(List.of(courseId), delta);
+    }
+
+    public void add(Collection<Long> courseIds, int delta) {
+        if (courseIds.isEmpty() || delta == 0) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(ADD_SQL, List.copyOf(courseIds), BATCH_SIZE, (ps, id) -> {
+            ps.setInt(1, delta);
+            ps.setLong(2, id);
+        });
+        changed(courseIds);
+    }
+
+    /**
+     * Must run before the student's join rows are deleted.
+     */
+    public void removeStudent(Long studentId) {
+        List<Long> courseIds = jdbcTemplate.queryForList(STUDENT_COURSES_SQL, Long.class, studentId);
+        if (!courseIds.isEmpty()) {
+            jdbcTemplate.update(REMOVE_STUDENT_SQL, studentId);
+            changed(courseIds);
+        }
+    }
+
+    // The counts are written past Hibernate, so the cached courses are evicted now and again once
+    // the transaction completes, and the catalog behind GET /api/courses is rebuilt after commit.
+    // The cached course queries hold only ids and are left alone. Courses changed by several writes
+    // in one transaction are gathered so the catalog is refreshed once.
+    void changed(Collection<Long> courseIds) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        courseIds.forEach(id -> cache.evictEntityData(Course.class, id));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            courseService.refreshCatalogAsync();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> changedIds = new HashSet<>();
+            pending = changedIds;
+            TransactionSynchronizationManager.bindResource(this, changedIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EnrollmentCounts.this);
+                    changedIds.forEach(id -> cache.evictEntityData(Course.class, id));
+                    if (status == STATUS_COMMITTED) {
+                        courseService.refreshCatalogAsync();
+                    }
+                }
+            });
+        }
+        pending.addAll(courseIds);
+    }
+}
@@ -1,58 +1,273 @@
 package com.spring.JpaRelationships.service;
 
+import com.spring.JpaRelationships.dto.EnrollmentResultDto;
+import com.spring.JpaRelationships.dto.EnrollmentResultDto.Outcome;
 import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.exception.ResourceNotFoundException;
 import com.spring.JpaRelationships.exception.UniqueFieldException;
 import com.spring.JpaRelationships.repository.CourseRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
 public class EnrollmentService {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentVersions studentVersions;
+    private final EnrollmentCounts enrollmentCounts;
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL = """
+            insert into student_course (student_id, course_id)
+            select pair.student_id, pair.course_id from (values (?, ?)) pair (student_id, course_id)
+            where not exists (select 1 from student_course enrolled
+                              where enrolled.student_id = pair.student_id and enrolled.course_id = pair.course_id)""";
+    private static final String DELETE_SQL = "delete from student_course where student_id = ? and course_id = ?";
+    private static final String STUDENT_COURSES = Student.class.getName() + ".courses";
+    private static final String COURSE_STUDENTS = Course.class.getName() + ".students";
 
-    private Student findStudent(Long id) {
-        return studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id " + id));
+    private final String DUPLICATE_MESSAGE = "Course already exist for this student.";
+
+    private void checkStudent(Long id) {
+        if (!studentRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Student not found with id " + id);
+        }
     }
 
-    private Course findCourse(Long id){
-        return courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+    private void checkCourse(Long id){
+        if (!courseRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Course not found");
+        }
     }
 
     @Transactional
     public void enrollStudentToCourse(Long studentId, Long courseId) {
-        Student student = findStudent(studentId);
-        Course course = findCourse(courseId);
+        checkStudent(studentId);
+        checkCourse(courseId);
 
-        if (student.getCourses().add(course) && course.getStudents().add(student)){
-            saveStudentAndCourse(student, course);
-        } else {
-            throw new UniqueFieldException("Course already exist for this student.");
+        try {
+            if (studentRepository.insertEnrollment(studentId, courseId) == 0) {
+                throw new UniqueFieldException(DUPLICATE_MESSAGE);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            throw new UniqueFieldException(DUPLICATE_MESSAGE);
         }
-    }
 
-    private void saveStudentAndCourse(Student student, Course course){
-        studentRepository.save(student);
-        courseRepository.save(course);
+        enrollmentCounts.add(courseId, 1);
+        invalidate(List.of(studentId), List.of(courseId));
     }
 
     @Transactional
     public void unenrollStudentFromCourse(Long studentId, Long courseId) {
-        Course course = findCourse(courseId);
-        Student student = findStudent(studentId);
+        checkCourse(courseId);
+        checkStudent(studentId);
 
-        if (student.getCourses().remove(course) && course.getStudents().remove(student)){
-            saveStudentAndCourse(student, course);
-        } else {
+        if (studentRepository.deleteEnrollment(studentId, courseId) == 0) {
             throw new ResourceNotFoundException("This course doesn't contain student with id " + studentId);
         }
+
+        enrollmentCounts.add(courseId, -1);
+        invalidate(List.of(studentId), List.of(courseId));
+    }
+
+    @Transactional
+    public List<EnrollmentResultDto> enrollStudents(Long courseId, Collection<Long> studentIds) {
+        checkCourse(courseId);
+
+        BulkPlan plan = plan(studentIds, studentRepository::findExistingIds,
+                ids -> studentRepository.findEnrolledStudentIds(courseId, ids), true);
+        List<Long> written = write(INSERT_SQL, plan.changedIds(), studentId -> new Object[]{studentId, courseId});
+        enrollmentCounts.add(courseId, written.size());
+
+        invalidate(written, List.of(courseId));
+        return plan.settle(written);
+    }
+
+    @Transactional
+    public List<EnrollmentResultDto> unenrollStudents(Long courseId, Collection<Long> studentIds) {
+        checkCourse(courseId);
+
+        BulkPlan plan = plan(studentIds, studentRepository::findExistingIds,
+                ids -> studentRepository.findEnrolledStudentIds(courseId, ids), false);
+        List<Long> written = write(DELETE_SQL, plan.changedIds(), studentId -> new Object[]{studentId, courseId});
+        enrollmentCounts.add(courseId, -written.size());
+
+        invalidate(written, List.of(courseId));
+        return plan.settle(written);
+    }
+
+    @Transactional
+    public List<EnrollmentResultDto> enrollInCourses(Long studentId, Collection<Long> courseIds) {
+        checkStudent(studentId);
+
+        BulkPlan plan = plan(courseIds, courseRepository::findExistingIds,
+                ids -> studentRepository.findEnrolledCourseIds(studentId, ids), true);
+        List<Long> written = write(INSERT_SQL, plan.changedIds(), courseId -> new Object[]{studentId, courseId});
+        enrollmentCounts.add(written, 1);
+
+        invalidate(List.of(studentId), written);
+        return plan.settle(written);
+    }
+
+    @Transactional
+    public List<EnrollmentResultDto> unenrollFromCourses(Long studentId, Collection<Long> courseIds) {
+        checkStudent(studentId);
+
+        BulkPlan plan = plan(courseIds, courseRepository::findExistingIds,
+                ids -> studentRepository.findEnrolledCourseIds(studentId, ids), false);
+        List<Long> written = write(DELETE_SQL, plan.changedIds(), courseId -> new Object[]{studentId, courseId});
+        enrollmentCounts.add(written, -1);
+
+        invalidate(List.of(studentId), written);
+        return plan.settle(written);
+    }
+
+    @Transactional
+    public List<EnrollmentResultDto> moveStudents(Long sourceCourseId, Long targetCourseId, Collection<Long> studentIds) {
+        checkCourse(sourceCourseId);
+        checkCourse(targetCourseId);
+
+        BulkPlan removal = plan(studentIds, studentRepository::findExistingIds,
+                ids -> studentRepository.findEnrolledStudentIds(sourceCourseId, ids), false);
+        List<Long> removed = write(DELETE_SQL, removal.changedIds(), studentId -> new Object[]{studentId, sourceCourseId});
+        List<Long> added = write(INSERT_SQL, removed, studentId -> new Object[]{studentId, targetCourseId});
+        enrollmentCounts.add(sourceCourseId, -removed.size());
+        enrollmentCounts.add(targetCourseId, added.size());
+
+        invalidate(removed, List.of(sourceCourseId, targetCourseId));
+        return removal.settle(removed).stream()
+                .map(result -> result.getOutcome() == Outcome.UNENROLLED ?
+                        new EnrollmentResultDto(result.getId(), Outcome.MOVED) :
+                        result)
+                .toList();
+    }
+
+    private BulkPlan plan(Collection<Long> requestedIds,
+                          Function<Collection<Long>, List<Long>> findExisting,
+                          Function<Collection<Long>, List<Long>> findEnrolled,
+                          boolean enroll) {
+        Set<Long> ids = new LinkedHashSet<>(requestedIds);
+        Set<Long> existing = ids.isEmpty() ? Set.of() : new HashSet<>(findExisting.apply(ids));
+        Set<Long> enrolled = existing.isEmpty() ? Set.of() : new HashSet<>(findEnrolled.apply(existing));
+
+        List<EnrollmentResultDto> results = new ArrayList<>(ids.size());
+        List<Long> changedIds = new ArrayList<>();
+
+        for (Long id : ids) {
+            Outcome outcome;
+            if (!existing.contains(id)) {
+                outcome = Outcome.NOT_FOUND;
+            } else if (enroll == enrolled.contains(id)) {
+                outcome = enroll ? Outcome.ALREADY_ENROLLED : Outcome.NOT_ENROLLED;
+            } else {
+                outcome = enroll ? Outcome.ENROLLED : Outcome.UNENROLLED;
+                changedIds.add(id);
+            }
+            results.add(new EnrollmentResultDto(id, outcome));
+        }
+
+        return new BulkPlan(results, changedIds);
+    }
+
+    // Returns the ids whose row was actually written: a concurrent request may have changed the
+    // same pairs since they were planned, so the counts follow the update counts, not the plan.
+    private List<Long> write(String sql, List<Long> ids, Function<Long, Object[]> toRow) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        entityManager.flush();
+        int[][] counts = jdbcTemplate.batchUpdate(sql, ids.stream().map(toRow).toList(), BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setLong(2, (Long) row[1]);
+        });
+
+        List<Long> written = new ArrayList<>(ids.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    written.add(ids.get(index));
+                }
+                index++;
+            }
+        }
+        return written;
+    }
+
+    private record BulkPlan(List<EnrollmentResultDto> results, List<Long> changedIds) {
+        // A pair a concurrent request changed after planning is left alone by the write, so it is
+        // reported as if it had been found that way.
+        List<EnrollmentResultDto> settle(Collection<Long> writtenIds) {
+            if (writtenIds.size() == changedIds.size()) {
+                return results;
+            }
+
+            Set<Long> written = new HashSet<>(writtenIds);
+            return results.stream()
+                    .map(result -> switch (result.getOutcome()) {
+                        case ENROLLED -> written.contains(result.getId()) ? result :
+                                new EnrollmentResultDto(result.getId(), Outcome.ALREADY_ENROLLED);
+                        case UNENROLLED -> written.contains(result.getId()) ? result :
+                                new EnrollmentResultDto(result.getId(), Outcome.NOT_ENROLLED);
+                        default -> result;
+                    })
+                    .toList();
+        }
+    }
+
+    // Join rows are written directly, so a Student or Course already loaded in this
+    // persistence context, or cached in the second-level cache, would otherwise keep a
+    // stale collection. Cached collections are evicted again once the transaction
+    // completes, in case a concurrent reader re-cached the old rows in between. The students'
+    // versions are bumped so their ETags change with their course lists.
+    private void invalidate(Collection<Long> studentIds, Collection<Long> courseIds) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> {
+            studentIds.forEach(id -> cache.evictCollectionData(STUDENT_COURSES, id));
+            courseIds.forEach(id -> cache.evictCollectionData(COURSE_STUDENTS, id));
+        };
+
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+
+        studentVersions.increment(studentIds);
+        courseIds.forEach(id -> refreshIfLoaded(entityManager.getReference(Course.class, id)));
+    }
+
+    private void refreshIfLoaded(Object entity) {
+        if (Hibernate.isInitialized(entity)) {
+            entityManager.refresh(entity);
+        }
     }
 }
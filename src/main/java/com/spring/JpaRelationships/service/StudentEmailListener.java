@@ -0,0 +1,21 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.entity.Student;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class StudentEmailListener {
+    private final ObjectProvider<StudentEmails> studentEmails;
+
+    @PrePersist
+    @PreUpdate
+    public void onStudentWritten(Student student) {
+        studentEmails.getObject().add(student.getEmail());
+    }
+}
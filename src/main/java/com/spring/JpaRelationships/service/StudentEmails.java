@@ -0,0 +1,158 @@
+package com.spring.JpaRelationships.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A Bloom filter of the student emails in the database, so a duplicate check can skip the database
+ * for an email that is definitely new. {@link StudentEmailListener} adds the email of every student
+ * Hibernate inserts or updates before the row is written, and a deleted email stays until the next
+ * rebuild; both only cause false positives, which cost the lookup the filter would have saved. Until
+ * the first build completes, every email might be known. Students written past Hibernate are not
+ * seen, so the unique index on students.email stays the final check.
+ * <p>
+ * The filter is built from the table once the application is ready, and rebuilt after bulk loads and
+ * whenever it holds more emails than it was sized for.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class StudentEmails {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${students.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${students.email-filter.min-capacity:100000}")
+    private long minCapacity;
+
+    private static final int SCAN_BATCH_SIZE = 10_000;
+    private static final String SCAN_SQL = "select id, email from students where id > ? order by id limit ?";
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "student-email-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    // The filter being rebuilt; it receives every email added while the table is scanned.
+    private volatile BloomFilter building;
+
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(email);
+    }
+
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+
+        put(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rebuild that starts and scans before this commit does not see the row, so the email
+            // is added again to whichever filter is current by then.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(email);
+                }
+            });
+        }
+    }
+
+    // Reads the rebuilt filter before the current one, the reverse of the order the rebuild publishes
+    // them in, so an email added while the rebuild completes reaches the filter that is kept.
+    private void put(String email) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+
+        BloomFilter current = filter;
+        if (current != null && current != next && current.put(email) && current.count() > current.capacity()) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Rebuilds the filter in the background; rebuilds requested while one is queued are coalesced.
+     */
+    public void rebuildAsync() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.warn("Student email filter rebuild failed, keeping the previous filter", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Builds a filter sized for twice the current number of students from the emails in the table,
+     * reading it in id order one batch at a time, and swaps it in.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long students = jdbcTemplate.queryForObject("select count(*) from students", Long.class);
+            BloomFilter next = new BloomFilter(Math.max(minCapacity, 2 * students), falsePositiveRate);
+
+            building = next;
+            try {
+                long after = 0;
+                int read;
+                do {
+                    long[] lastId = {after};
+                    int[] rows = {0};
+                    jdbcTemplate.query(SCAN_SQL, rs -> {
+                        String email = rs.getString("email");
+                        if (email != null) {
+                            next.put(email);
+                        }
+                        lastId[0] = rs.getLong("id");
+                        rows[0]++;
+                    }, after, SCAN_BATCH_SIZE);
+                    after = lastId[0];
+                    read = rows[0];
+                } while (read == SCAN_BATCH_SIZE);
+
+                filter = next;
+            } finally {
+                building = null;
+            }
+            log.info("Built student email filter with {} emails for a capacity of {}", next.count(), next.capacity());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmFilter() {
+        rebuild();
+    }
+
+    @PreDestroy
+    void stopRebuilder() {
+        rebuilder.shutdownNow();
+    }
+}
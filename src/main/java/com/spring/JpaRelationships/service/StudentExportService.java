@@ -0,0 +1,276 @@
+package com.spring.JpaRelationships.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class StudentExportService {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${students.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private static final String STUDENTS_SQL = """
+            select s.id, s.name, s.email, a.street, a.zip_code, a.city
+            from students s left join addresses a on a.id = s.address_id
+            order by s.id""";
+
+    private static final String COURSES_SQL = """
+            select sc.student_id, c.code
+            from student_course sc join courses c on c.id = sc.course_id
+            order by sc.student_id, c.code""";
+
+    private static final String ASSIGNMENTS_SQL = """
+            select student_id, id, title, due_date
+            from assignments
+            where student_id is not null
+            order by student_id, id""";
+
+    public enum Format { JSON, CSV }
+
+    /**
+     * Streams every student with address, course codes and assignments. The three result sets are
+     * read forward-only and merged on the student id, so only the current student is held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream output) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (ExportWriter writer = format == Format.CSV ? new CsvExportWriter(output) : new JsonExportWriter(output)) {
+                export(connection, writer);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return null;
+        });
+    }
+
+    private void export(Connection connection, ExportWriter writer) throws SQLException, IOException {
+        try (PreparedStatement students = prepare(connection, STUDENTS_SQL);
+             PreparedStatement courses = prepare(connection, COURSES_SQL);
+             PreparedStatement assignments = prepare(connection, ASSIGNMENTS_SQL);
+             ResultSet studentRows = students.executeQuery();
+             ResultSet courseRows = courses.executeQuery();
+             ResultSet assignmentRows = assignments.executeQuery()) {
+
+            ChildCursor courseCursor = new ChildCursor(courseRows);
+            ChildCursor assignmentCursor = new ChildCursor(assignmentRows);
+
+            writer.begin();
+            while (studentRows.next()) {
+                long id = studentRows.getLong(1);
+
+                List<String> courseCodes = new ArrayList<>();
+                courseCursor.forEachOf(id, rs -> courseCodes.add(rs.getString(2)));
+
+                List<ExportAssignment> studentAssignments = new ArrayList<>();
+                assignmentCursor.forEachOf(id, rs -> {
+                    Date dueDate = rs.getDate(4);
+                    studentAssignments.add(new ExportAssignment(rs.getLong(2), rs.getString(3),
+                            dueDate == null ? null : dueDate.toLocalDate().toString()));
+                });
+
+                writer.write(new ExportStudent(id, studentRows.getString(2), studentRows.getString(3),
+                        studentRows.getString(4), studentRows.getString(5), studentRows.getString(6),
+                        courseCodes, studentAssignments));
+            }
+            writer.end();
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    private record ExportAssignment(long id, String title, String dueDate) {
+    }
+
+    private record ExportStudent(long id, String name, String email, String street, String zipCode, String city,
+                                 List<String> courses, List<ExportAssignment> assignments) {
+        boolean hasAddress() {
+            return street != null || zipCode != null || city != null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    private static class ChildCursor {
+        private final ResultSet rows;
+        private boolean hasRow;
+
+        ChildCursor(ResultSet rows) throws SQLException {
+            this.rows = rows;
+            this.hasRow = rows.next();
+        }
+
+        void forEachOf(long studentId, RowConsumer consumer) throws SQLException {
+            while (hasRow && rows.getLong(1) < studentId) {
+                hasRow = rows.next();
+            }
+            while (hasRow && rows.getLong(1) == studentId) {
+                consumer.accept(rows);
+                hasRow = rows.next();
+            }
+        }
+    }
+
+    private interface ExportWriter extends AutoCloseable {
+        void begin() throws IOException;
+
+        void write(ExportStudent student) throws IOException;
+
+        void end() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private class JsonExportWriter implements ExportWriter {
+        private final JsonGenerator generator;
+
+        JsonExportWriter(OutputStream output) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(ExportStudent student) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", student.id());
+            generator.writeStringField("name", student.name());
+            generator.writeStringField("email", student.email());
+
+            if (student.hasAddress()) {
+                generator.writeObjectFieldStart("address");
+                generator.writeStringField("street", student.street());
+                generator.writeStringField("zipCode", student.zipCode());
+                generator.writeStringField("city", student.city());
+                generator.writeEndObject();
+            } else {
+                generator.writeNullField("address");
+            }
+
+            generator.writeArrayFieldStart("courses");
+            for (String code : student.courses()) {
+                generator.writeString(code);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("assignments");
+            for (ExportAssignment assignment : student.assignments()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", assignment.id());
+                generator.writeStringField("title", assignment.title());
+                generator.writeStringField("dueDate", assignment.dueDate());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.writeEndArray();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class CsvExportWriter implements ExportWriter {
+        private final Writer writer;
+
+        CsvExportWriter(OutputStream output) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write("id,name,email,street,zipCode,city,courses,assignments\n");
+        }
+
+        @Override
+        public void write(ExportStudent student) throws IOException {
+            String courses = student.courses().stream()
+                    .map(CsvExportWriter::element)
+                    .collect(Collectors.joining(";"));
+            String assignments = student.assignments().stream()
+                    .map(assignment -> element(assignment.title()) + ":" + (assignment.dueDate() == null ? "" : assignment.dueDate()))
+                    .collect(Collectors.joining(";"));
+
+            writer.write(student.id() + ","
+                    + escape(student.name()) + ","
+                    + escape(student.email()) + ","
+                    + escape(student.street()) + ","
+                    + escape(student.zipCode()) + ","
+                    + escape(student.city()) + ","
+                    + escape(courses) + ","
+                    + escape(assignments) + "\n");
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        // Courses and assignments are lists in one field, separated by ';' with an assignment's title
+        // and due date separated by ':', so those characters are backslash-escaped within an element.
+        private static String element(String value) {
+            if (value == null) {
+                return "";
+            }
+            return value.replace("\\", "\\\\").replace(";", "\\;").replace(":", "\\:");
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.spring.JpaRelationships.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.ImportChunkDto;
+import com.spring.JpaRelationships.dto.ImportSummaryDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.exception.InvalidImportException;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class StudentImportService {
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentMapper studentMapper;
+    private final ObjectMapper objectMapper;
+    private final StudentRepository studentRepository;
+    private final StudentEmails studentEmails;
+    private final StudentSearchIndex searchIndex;
+
+    @Value("${students.import.chunk-size:500}")
+    private int chunkSize;
+
+    private static final String DUPLICATE_EMAIL_ERROR = "email already exists";
+
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * Reads the body record by record and persists every {@code chunkSize} rows in their own
+     * transaction, clearing the persistence context afterwards so memory does not grow with the input.
+     * A row whose email is already stored, or repeated within its chunk, is rejected; a repeat in a
+     * later chunk is found in the database once the earlier chunk has been written.
+     */
+    public ImportSummaryDto importStudents(InputStream input, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Records records = new LineRecords(reader);
+        RowParser parser = this::parseJson;
+
+        if (format == Format.CSV) {
+            records = new CsvRecords(reader);
+            parser = new CsvRowParser(records.next());
+        }
+
+        List<ImportChunkDto> chunks = new ArrayList<>();
+        List<Row> rows = new ArrayList<>(chunkSize);
+        List<String> errors = new ArrayList<>();
+        Set<String> chunkEmails = new HashSet<>();
+        String record;
+
+        while ((record = records.next()) != null) {
+            int lineNumber = records.line();
+            if (record.isBlank()) {
+                continue;
+            }
+
+            try {
+                StudentDto dto = validate(parser.parse(record));
+                if (!chunkEmails.add(dto.getEmail())) {
+                    throw new IllegalArgumentException(DUPLICATE_EMAIL_ERROR);
+                }
+                rows.add(new Row(lineNumber, dto));
+            } catch (IllegalArgumentException ex) {
+                errors.add("line " + lineNumber + ": " + ex.getMessage());
+            }
+
+            if (rows.size() + errors.size() == chunkSize) {
+                chunks.add(persistChunk(chunks.size() + 1, rows, errors));
+                rows = new ArrayList<>(chunkSize);
+                errors = new ArrayList<>();
+                chunkEmails.clear();
+            }
+        }
+
+        if (!rows.isEmpty() || !errors.isEmpty()) {
+            chunks.add(persistChunk(chunks.size() + 1, rows, errors));
+        }
+
+        return new ImportSummaryDto(
+                chunks.stream().mapToInt(ImportChunkDto::getAccepted).sum(),
+                chunks.stream().mapToInt(ImportChunkDto::getRejected).sum(),
+                chunks);
+    }
+
+    // Rows rejected inside the transaction are only added to the chunk's errors once it commits.
+    private ImportChunkDto persistChunk(int chunk, List<Row> rows, List<String> errors) {
+        int total = rows.size() + errors.size();
+        try {
+            List<String> duplicates = transactionTemplate.execute(status -> {
+                List<String> storedEmailErrors = new ArrayList<>();
+                List<Row> newRows = withoutStoredEmails(rows, storedEmailErrors);
+                newRows.forEach(row -> {
+                    Student student = studentMapper.toEntity(row.student());
+                    entityManager.persist(student);
+                    searchIndex.put(student);
+                });
+                entityManager.flush();
+                entityManager.clear();
+                return storedEmailErrors;
+            });
+
+            errors.addAll(duplicates);
+            return new ImportChunkDto(chunk, total - errors.size(), errors.size(), errors);
+        } catch (PersistenceException | DataAccessException ex) {
+            errors.add("chunk " + chunk + ": " + ex.getMessage());
+
+            return new ImportChunkDto(chunk, 0, total, errors);
+        }
+    }
+
+    // Only the emails the filter might know are looked up, so a chunk of new students costs no query.
+    private List<Row> withoutStoredEmails(List<Row> rows, List<String> errors) {
+        List<String> candidates = rows.stream()
+                .map(row -> row.student().getEmail())
+                .filter(studentEmails::mightContain)
+                .toList();
+        Set<String> stored = candidates.isEmpty() ? Set.of() : new HashSet<>(studentRepository.findExistingEmails(candidates));
+        if (stored.isEmpty()) {
+            return rows;
+        }
+
+        List<Row> newRows = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (stored.contains(row.student().getEmail())) {
+                errors.add("line " + row.line() + ": " + DUPLICATE_EMAIL_ERROR);
+            } else {
+                newRows.add(row);
+            }
+        }
+        return newRows;
+    }
+
+    private StudentDto validate(StudentDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (dto.getEmail() == null || dto.getEmail().isBlank()) {
+            throw new IllegalArgumentException("email is required");
+        }
+        return dto;
+    }
+
+    private StudentDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, StudentDto.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex.getOriginalMessage());
+        }
+    }
+
+    private record Row(int line, StudentDto student) {
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        StudentDto parse(String record);
+    }
+
+    private interface Records {
+        String next() throws IOException;
+
+        // The line the last record started on.
+        int line();
+    }
+
+    private static class LineRecords implements Records {
+        private final BufferedReader reader;
+        private int line;
+
+        LineRecords(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String next() throws IOException {
+            String record = reader.readLine();
+            line++;
+            return record;
+        }
+
+        @Override
+        public int line() {
+            return line;
+        }
+    }
+
+    // A record ends at a line break outside quotes, so a quoted field may hold line breaks, as the
+    // CSV export writes them. They are kept as they were sent.
+    private static class CsvRecords implements Records {
+        private final BufferedReader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private int line;
+        private int nextLine = 1;
+
+        CsvRecords(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            line = nextLine;
+            StringBuilder record = new StringBuilder();
+            boolean quoted = false;
+
+            for (; c != -1; c = read()) {
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\r' || c == '\n') {
+                    nextLine++;
+                    if (c == '\r' && peek() == '\n') {
+                        if (quoted) {
+                            record.append('\r');
+                        }
+                        c = read();
+                    }
+                    if (!quoted) {
+                        return record.toString();
+                    }
+                }
+                record.append((char) c);
+            }
+            return record.toString();
+        }
+
+        @Override
+        public int line() {
+            return line;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            if (c != -1) {
+                position++;
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+    }
+
+    private static class CsvRowParser implements RowParser {
+        private static final List<String> COLUMNS = List.of("name", "email", "street", "zipcode", "city");
+
+        private final int[] positions = new int[COLUMNS.size()];
+
+        CsvRowParser(String header) {
+            if (header == null) {
+                throw new InvalidImportException("CSV header is missing");
+            }
+
+            List<String> names = split(header).stream()
+                    .map(name -> name.trim().toLowerCase())
+                    .toList();
+
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                positions[i] = names.indexOf(COLUMNS.get(i));
+            }
+        }
+
+        @Override
+        public StudentDto parse(String record) {
+            List<String> fields = split(record);
+            String[] values = new String[COLUMNS.size()];
+
+            for (int i = 0; i < values.length; i++) {
+                int position = positions[i];
+                values[i] = position >= 0 && position < fields.size() && !fields.get(position).isEmpty()
+                        ? fields.get(position)
+                        : null;
+            }
+
+            AddressDto address = Arrays.stream(values, 2, 5).allMatch(value -> value == null) ? null :
+                    AddressDto.builder()
+                            .street(values[2])
+                            .zipCode(values[3])
+                            .city(values[4])
+                            .build();
+
+            return StudentDto.builder()
+                    .name(values[0])
+                    .email(values[1])
+                    .address(address)
+                    .build();
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted field");
+            }
+
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
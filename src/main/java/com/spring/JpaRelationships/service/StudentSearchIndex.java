@@ -0,0 +1,305 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.entity.Student;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Finds students by name prefix and city in memory. Names and cities are normalized to lower case
+ * without accents, and a name matches when every word of the query starts one of its words.
+ * <p>
+ * Students live in an immutable {@link StudentSearchSnapshot}, built from the table once the
+ * application is ready and after bulk loads. Changes made through {@link StudentService} and
+ * {@link StudentImportService} are kept in a map of pending changes once they commit, which takes
+ * precedence over the snapshot, and are folded into a new snapshot in the background once there are
+ * more than {@code students.search.max-pending-changes} of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class StudentSearchIndex {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${students.search.max-pending-changes:1024}")
+    private int maxPendingChanges;
+
+    private static final int SCAN_BATCH_SIZE = 10_000;
+    private static final String SCAN_SQL = """
+            select s.id, s.name, a.city
+            from students s left join addresses a on a.id = s.address_id
+            where s.id > ?
+            order by s.id
+            limit ?""";
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Doc DELETED = new Doc(new String[0], null);
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "student-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    // Serializes rebuilds and compactions.
+    private final ReentrantLock buildLock = new ReentrantLock();
+    // Lets a query read the snapshot and the pending changes it was built without in one consistent view.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile StudentSearchSnapshot snapshot = StudentSearchSnapshot.EMPTY;
+    private final Map<Long, Doc> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param name words the student's name words must start with, or null
+     * @param city the student's city, or null
+     * @return up to {@code limit} ids above {@code after} of matching students, in ascending order
+     */
+    public List<Long> search(String name, String city, long after, int limit) {
+        String[] tokens = name == null ? new String[0] : tokens(name);
+        String normalizedCity = city == null ? null : normalizeCity(city);
+        if (name != null && tokens.length == 0) {
+            return List.of();
+        }
+
+        swapLock.readLock().lock();
+        try {
+            List<Long> indexed = snapshot.search(tokens, normalizedCity, after, limit,
+                    pending.isEmpty() ? id -> false : pending::containsKey);
+
+            List<Long> changed = new ArrayList<>();
+            pending.forEach((id, doc) -> {
+                if (id > after && doc != DELETED && doc.matches(tokens, normalizedCity)) {
+                    changed.add(id);
+                }
+            });
+            if (changed.isEmpty()) {
+                return indexed;
+            }
+
+            changed.sort(null);
+            return merge(indexed, changed, limit);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static List<Long> merge(List<Long> first, List<Long> second, int limit) {
+        List<Long> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || i < first.size() && first.get(i) < second.get(j)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Indexes the student's current name and city once the surrounding transaction commits.
+     */
+    public void put(Student student) {
+        String city = student.getAddress() == null ? null : student.getAddress().getCity();
+        afterCommit(student.getId(), new Doc(student.getName() == null ? new String[0] : tokens(student.getName()),
+                city == null ? null : normalizeCity(city)));
+    }
+
+    /**
+     * Drops the student once the surrounding transaction commits.
+     */
+    public void remove(Long id) {
+        afterCommit(id, DELETED);
+    }
+
+    private void afterCommit(Long id, Doc doc) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change(id, doc);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change(id, doc);
+            }
+        });
+    }
+
+    private void change(Long id, Doc doc) {
+        pending.put(id, doc);
+        if (pending.size() > maxPendingChanges) {
+            compactAsync();
+        }
+    }
+
+    /**
+     * Folds the pending changes into a new snapshot in the background; compactions requested while
+     * one is queued are coalesced.
+     */
+    public void compactAsync() {
+        if (compactionQueued.compareAndSet(false, true)) {
+            indexer.execute(() -> {
+                compactionQueued.set(false);
+                try {
+                    compact();
+                } catch (RuntimeException ex) {
+                    log.warn("Student search index compaction failed, keeping the pending changes", ex);
+                }
+            });
+        }
+    }
+
+    void compact() {
+        buildLock.lock();
+        try {
+            Map<Long, Doc> changes = new HashMap<>(pending);
+            Long[] changedIds = changes.keySet().toArray(Long[]::new);
+            Arrays.sort(changedIds);
+
+            StudentSearchSnapshot.Builder builder = new StudentSearchSnapshot.Builder();
+            int[] next = {0};
+            snapshot.forEach((id, tokens, city) -> {
+                for (; next[0] < changedIds.length && changedIds[next[0]] < id; next[0]++) {
+                    addChange(builder, changedIds[next[0]], changes);
+                }
+                if (!changes.containsKey(id)) {
+                    builder.add(id, tokens, city);
+                }
+            });
+            for (; next[0] < changedIds.length; next[0]++) {
+                addChange(builder, changedIds[next[0]], changes);
+            }
+
+            swap(builder.build(), changes);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private static void addChange(StudentSearchSnapshot.Builder builder, Long id, Map<Long, Doc> changes) {
+        Doc doc = changes.get(id);
+        if (doc != DELETED) {
+            builder.add(id, doc.tokens(), doc.city());
+        }
+    }
+
+    /**
+     * Builds a new snapshot from the students table in the background.
+     */
+    public void rebuildAsync() {
+        indexer.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                log.warn("Student search index rebuild failed, serving the previous snapshot", ex);
+            }
+        });
+    }
+
+    /**
+     * Reads every student's name and city in id order, one batch at a time, into a new snapshot.
+     * Changes committed while the table is read stay pending, so they override what was read.
+     */
+    public void rebuild() {
+        buildLock.lock();
+        try {
+            long started = System.nanoTime();
+            StudentSearchSnapshot.Builder builder = new StudentSearchSnapshot.Builder();
+            long after = 0;
+            int read;
+            do {
+                long[] lastId = {after};
+                int[] rows = {0};
+                jdbcTemplate.query(SCAN_SQL, rs -> {
+                    String name = rs.getString("name");
+                    String city = rs.getString("city");
+                    lastId[0] = rs.getLong("id");
+                    builder.add(lastId[0], name == null ? new String[0] : tokens(name), city == null ? null : normalizeCity(city));
+                    rows[0]++;
+                }, after, SCAN_BATCH_SIZE);
+                after = lastId[0];
+                read = rows[0];
+            } while (read == SCAN_BATCH_SIZE);
+
+            StudentSearchSnapshot built = builder.build();
+            swap(built, Map.of());
+            log.info("Indexed {} students for search in {} ms", built.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // A change made again while the snapshot was built is a different Doc, so it stays pending.
+    private void swap(StudentSearchSnapshot built, Map<Long, Doc> folded) {
+        swapLock.writeLock().lock();
+        try {
+            snapshot = built;
+            folded.forEach(pending::remove);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmIndex() {
+        rebuild();
+    }
+
+    @PreDestroy
+    void stopIndexer() {
+        indexer.shutdownNow();
+    }
+
+    static String[] tokens(String name) {
+        return SEPARATORS.splitAsStream(fold(name))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    static String normalizeCity(String city) {
+        return SEPARATORS.matcher(fold(city)).replaceAll(" ").trim();
+    }
+
+    private static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Doc(String[] tokens, String city) {
+        boolean matches(String[] prefixes, String wantedCity) {
+            if (wantedCity != null && !wantedCity.equals(city)) {
+                return false;
+            }
+            for (String prefix : prefixes) {
+                if (Arrays.stream(tokens).noneMatch(token -> token.startsWith(prefix))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.spring.JpaRelationships.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * An immutable inverted index over student names and cities. Students are stored in id order, so
+ * a student is addressed by its position and every posting list is an ascending int array. Name
+ * tokens are kept sorted, which makes the tokens starting with a prefix one contiguous range of
+ * ordinals, the subtree a prefix trie would walk. A query starts from its most selective term and
+ * checks the remaining terms against the student's own token ordinals, so it reads no more than the
+ * postings it returns plus the candidates it rejects.
+ */
+class StudentSearchSnapshot {
+    static final StudentSearchSnapshot EMPTY = new Builder().build();
+
+    // Above this many tokens under one prefix, a dense prefix is cheaper to check student by student
+    // than to merge its postings.
+    private static final int MAX_MERGED_TERMS = 1024;
+    private static final int MIN_SCANNED_DENSITY = 100;
+
+    private final long[] ids;
+    private final int[] nameOffsets;
+    private final int[] nameTerms;
+    private final int[] cities;
+    private final String[] terms;
+    private final int[] termOffsets;
+    private final int[] termPostings;
+    private final String[] cityNames;
+    private final int[] cityOffsets;
+    private final int[] cityPostings;
+
+    private StudentSearchSnapshot(long[] ids, int[] nameOffsets, int[] nameTerms, int[] cities,
+                                  String[] terms, String[] cityNames) {
+        this.ids = ids;
+        this.nameOffsets = nameOffsets;
+        this.nameTerms = nameTerms;
+        this.cities = cities;
+        this.terms = terms;
+        this.cityNames = cityNames;
+
+        termOffsets = new int[terms.length + 1];
+        termPostings = postings(nameOffsets, nameTerms, termOffsets);
+        int[] cityStarts = new int[ids.length + 1];
+        for (int position = 0; position < ids.length; position++) {
+            cityStarts[position + 1] = cityStarts[position] + (cities[position] < 0 ? 0 : 1);
+        }
+        int[] cityOrdinals = Arrays.stream(cities).filter(city -> city >= 0).toArray();
+        cityOffsets = new int[cityNames.length + 1];
+        cityPostings = postings(cityStarts, cityOrdinals, cityOffsets);
+    }
+
+    // Counting sort of the (position, ordinal) pairs by ordinal; positions come in ascending order,
+    // so each ordinal's postings end up sorted.
+    private static int[] postings(int[] starts, int[] ordinals, int[] offsets) {
+        for (int ordinal : ordinals) {
+            offsets[ordinal + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] postings = new int[ordinals.length];
+        for (int position = 0; position + 1 < starts.length; position++) {
+            for (int i = starts[position]; i < starts[position + 1]; i++) {
+                postings[next[ordinals[i]]++] = position;
+            }
+        }
+        return postings;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param tokens normalized name tokens, each the prefix of one of the student's name tokens
+     * @param city   normalized city the student must live in, or null
+     * @param skip   ids whose entry in this snapshot is out of date
+     * @return up to {@code limit} matching ids above {@code after}, in ascending order
+     */
+    List<Long> search(String[] tokens, String city, long after, int limit, LongPredicate skip) {
+        int[][] ranges = new int[tokens.length][];
+        for (int i = 0; i < tokens.length; i++) {
+            ranges[i] = prefixRange(tokens[i]);
+            if (ranges[i][0] == ranges[i][1]) {
+                return List.of();
+            }
+        }
+
+        int cityOrdinal = -1;
+        if (city != null) {
+            cityOrdinal = Arrays.binarySearch(cityNames, city);
+            if (cityOrdinal < 0) {
+                return List.of();
+            }
+        }
+
+        Candidates candidates = candidates(ranges, cityOrdinal, firstAfter(after));
+        List<Long> found = new ArrayList<>(Math.min(limit, 1024));
+        for (int position = candidates.next(); position >= 0 && found.size() < limit; position = candidates.next()) {
+            if (matches(position, ranges, cityOrdinal) && !skip.test(ids[position])) {
+                found.add(ids[position]);
+            }
+        }
+        return found;
+    }
+
+    // Picks the term with the fewest postings to enumerate candidates from.
+    private Candidates candidates(int[][] ranges, int cityOrdinal, int from) {
+        int smallest = -1;
+        int smallestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < ranges.length; i++) {
+            int count = termOffsets[ranges[i][1]] - termOffsets[ranges[i][0]];
+            if (count < smallestCount) {
+                smallest = i;
+                smallestCount = count;
+            }
+        }
+
+        if (cityOrdinal >= 0 && cityOffsets[cityOrdinal + 1] - cityOffsets[cityOrdinal] <= smallestCount) {
+            return new Slice(cityPostings, cityOffsets[cityOrdinal], cityOffsets[cityOrdinal + 1], from);
+        }
+        if (smallest < 0) {
+            return new Scan(from, ids.length);
+        }
+
+        int[] range = ranges[smallest];
+        int termCount = range[1] - range[0];
+        if (termCount == 1) {
+            return new Slice(termPostings, termOffsets[range[0]], termOffsets[range[1]], from);
+        }
+        if (termCount > MAX_MERGED_TERMS && (long) smallestCount * MIN_SCANNED_DENSITY >= ids.length) {
+            return new Scan(from, ids.length);
+        }
+        return new Merge(range[0], range[1], from);
+    }
+
+    private boolean matches(int position, int[][] ranges, int cityOrdinal) {
+        if (cityOrdinal >= 0 && cities[position] != cityOrdinal) {
+            return false;
+        }
+
+        for (int[] range : ranges) {
+            boolean matched = false;
+            for (int i = nameOffsets[position]; i < nameOffsets[position + 1] && !matched; i++) {
+                matched = nameTerms[i] >= range[0] && nameTerms[i] < range[1];
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The ordinals [from, to) of the terms starting with the prefix. Tokens are letters and digits,
+    // so none reaches past the prefix followed by the highest char.
+    private int[] prefixRange(String prefix) {
+        return new int[]{insertionPoint(terms, prefix), insertionPoint(terms, prefix + Character.MAX_VALUE)};
+    }
+
+    private static int insertionPoint(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int firstAfter(long after) {
+        int index = Arrays.binarySearch(ids, after);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Calls the action with each student's id, name tokens and city, in id order.
+     */
+    void forEach(DocConsumer action) {
+        for (int position = 0; position < ids.length; position++) {
+            String[] tokens = new String[nameOffsets[position + 1] - nameOffsets[position]];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = terms[nameTerms[nameOffsets[position] + i]];
+            }
+            action.accept(ids[position], tokens, cities[position] < 0 ? null : cityNames[cities[position]]);
+        }
+    }
+
+    @FunctionalInterface
+    interface DocConsumer {
+        void accept(long id, String[] tokens, String city);
+    }
+
+    private interface Candidates {
+        /**
+         * @return the next candidate position in ascending order, or -1 once exhausted
+         */
+        int next();
+    }
+
+    private static final class Scan implements Candidates {
+        private int position;
+        private final int end;
+
+        Scan(int from, int end) {
+            this.position = from;
+            this.end = end;
+        }
+
+        @Override
+        public int next() {
+            return position < end ? position++ : -1;
+        }
+    }
+
+    private static final class Slice implements Candidates {
+        private final int[] postings;
+        private int index;
+        private final int end;
+
+        Slice(int[] postings, int start, int end, int from) {
+            this.postings = postings;
+            this.end = end;
+            int found = Arrays.binarySearch(postings, start, end, from);
+            this.index = found >= 0 ? found : -found - 1;
+        }
+
+        @Override
+        public int next() {
+            return index < end ? postings[index++] : -1;
+        }
+    }
+
+    // Merges the postings of a range of terms; a student with two tokens under the prefix shows up
+    // twice and is returned once.
+    private final class Merge implements Candidates {
+        private final PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        private int last = -1;
+
+        Merge(int fromTerm, int toTerm, int from) {
+            for (int term = fromTerm; term < toTerm; term++) {
+                int end = termOffsets[term + 1];
+                int found = Arrays.binarySearch(termPostings, termOffsets[term], end, from);
+                int index = found >= 0 ? found : -found - 1;
+                if (index < end) {
+                    heads.add(new int[]{termPostings[index], index, end});
+                }
+            }
+        }
+
+        @Override
+        public int next() {
+            while (!heads.isEmpty()) {
+                int[] head = heads.poll();
+                int position = head[0];
+                if (++head[1] < head[2]) {
+                    head[0] = termPostings[head[1]];
+                    heads.add(head);
+                }
+                if (position != last) {
+                    last = position;
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Collects students in ascending id order.
+     */
+    static final class Builder {
+        private long[] ids = new long[1024];
+        private int[] nameOffsets = new int[1025];
+        private int[] nameTerms = new int[2048];
+        private int[] cities = new int[1024];
+        private int size;
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> termList = new ArrayList<>();
+        private final Map<String, Integer> cityIds = new HashMap<>();
+        private final List<String> cityList = new ArrayList<>();
+
+        Builder add(long id, String[] tokens, String city) {
+            if (size > 0 && id <= ids[size - 1]) {
+                throw new IllegalArgumentException("Students must be added in ascending id order");
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                nameOffsets = Arrays.copyOf(nameOffsets, size * 2 + 1);
+                cities = Arrays.copyOf(cities, size * 2);
+            }
+            int start = nameOffsets[size];
+            if (start + tokens.length > nameTerms.length) {
+                nameTerms = Arrays.copyOf(nameTerms, Math.max(nameTerms.length * 2, start + tokens.length));
+            }
+
+            for (int i = 0; i < tokens.length; i++) {
+                nameTerms[start + i] = id(tokens[i], termIds, termList);
+            }
+            ids[size] = id;
+            cities[size] = city == null ? -1 : id(city, cityIds, cityList);
+            nameOffsets[++size] = start + tokens.length;
+            return this;
+        }
+
+        private static int id(String value, Map<String, Integer> ids, List<String> values) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        // Replaces the ids handed out in arrival order with the ordinals of the sorted values.
+        StudentSearchSnapshot build() {
+            String[] terms = termList.toArray(String[]::new);
+            int[] termOrdinals = ordinals(terms);
+            String[] cityNames = cityList.toArray(String[]::new);
+            int[] cityOrdinals = ordinals(cityNames);
+
+            int[] names = Arrays.copyOf(nameTerms, nameOffsets[size]);
+            for (int i = 0; i < names.length; i++) {
+                names[i] = termOrdinals[names[i]];
+            }
+            int[] studentCities = Arrays.copyOf(cities, size);
+            for (int i = 0; i < studentCities.length; i++) {
+                studentCities[i] = studentCities[i] < 0 ? -1 : cityOrdinals[studentCities[i]];
+            }
+
+            return new StudentSearchSnapshot(Arrays.copyOf(ids, size), Arrays.copyOf(nameOffsets, size + 1), names,
+                    studentCities, terms, cityNames);
+        }
+
+        // Sorts the values in place and returns, for each id, the value's position after sorting.
+        private static int[] ordinals(String[] values) {
+            Integer[] order = new Integer[values.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            String[] unsorted = values.clone();
+            Arrays.sort(order, (a, b) -> unsorted[a].compareTo(unsorted[b]));
+
+            int[] ordinals = new int[values.length];
+            for (int ordinal = 0; ordinal < order.length; ordinal++) {
+                ordinals[order[ordinal]] = ordinal;
+                values[ordinal] = unsorted[order[ordinal]];
+            }
+            return ordinals;
+        }
+    }
+}
@@ -2,16 +2,33 @@ package com.spring.JpaRelationships.service;
 
 import com.spring.JpaRelationships.dto.CourseDto;
 import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.dto.StudentRowDto;
+import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.exception.InvalidSearchException;
+import com.spring.JpaRelationships.exception.PreconditionFailedException;
 import com.spring.JpaRelationships.exception.ResourceNotFoundException;
+import com.spring.JpaRelationships.exception.UniqueFieldException;
 import com.spring.JpaRelationships.mapper.CourseMapper;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
+import com.spring.JpaRelationships.pagination.Cursors;
+import com.spring.JpaRelationships.repository.AssignmentRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
@@ -19,21 +36,82 @@ public class StudentService {
     private final StudentRepository repository;
     private final StudentMapper studentMapper;
     private final CourseMapper courseMapper;
+    private final AssignmentRepository assignmentRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final StudentVersions studentVersions;
+    private final EnrollmentCounts enrollmentCounts;
+    private final StudentEmails studentEmails;
+    private final StudentSearchIndex searchIndex;
+    private final JdbcTemplate jdbcTemplate;
     private final String ERROR_MESSAGE = "Student not found with id ";
+    private final String DUPLICATE_EMAIL_MESSAGE = "Student already exists with email ";
+    private static final String DELETE_ENROLLMENTS_SQL = "delete from student_course where student_id = ?";
+    private static final String DELETE_STUDENT_RETURNING_SQL = "delete from students where id = ? returning address_id";
+    private static final String DELETE_STUDENT_FROM_OLD_TABLE_SQL =
+            "select address_id from old table (delete from students where id = ?)";
 
     public Student save(StudentDto dto){
-        return repository.save(studentMapper.toEntity(dto));
+        requireUniqueEmail(dto.getEmail(), null);
+
+        Student savedStudent = repository.save(studentMapper.toEntity(dto));
+        searchIndex.put(savedStudent);
+
+        return savedStudent;
     }
 
+    @Transactional(readOnly = true)
     public List<Student> findAll(){
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Student> findPage(String cursor, int limit) {
+        List<Student> students = repository.findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor), Cursors.fetchLimit(limit));
+
+        return CursorPage.of(students, Cursors.clamp(limit), student -> Cursors.encode(student.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public Student findById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE + id));
     }
 
+    /**
+     * Pages through the students whose name words start with the words of {@code name} and who
+     * live in {@code city}; either may be left out, but not both.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDto> search(String name, String city, String cursor, int limit) {
+        if (isBlank(name) && isBlank(city)) {
+            throw new InvalidSearchException("Search needs a name or a city");
+        }
+
+        List<Long> ids = searchIndex.search(isBlank(name) ? null : name, isBlank(city) ? null : city,
+                Cursors.decodeId(cursor), Cursors.clamp(limit) + 1);
+        List<StudentRowDto> rows = ids.isEmpty() ? List.of() : repository.findRowsByIdIn(ids);
+
+        return CursorPage.of(rows, Cursors.clamp(limit), row -> Cursors.encode(row.getId()))
+                .map(studentMapper::toDto);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @Transactional(readOnly = true)
+    public Student findByEmail(String email) {
+        return repository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with email " + email));
+    }
+
+    @Transactional(readOnly = true)
+    public Long findVersion(Long id) {
+        return repository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE + id));
+    }
+
+    @Transactional(readOnly = true)
     public List<CourseDto> findAllCourses(Long studentId) {
         Student student = findById(studentId);
 
@@ -42,26 +120,102 @@ public class StudentService {
                 .toList();
     }
 
+    /**
+     * Removes the student and everything it owns with one statement per table, so the
+     * cost does not grow with the number of assignments or enrollments. The student delete
+     * hands back the address id, so the student is never read first.
+     */
+    @Transactional
     public void deleteById(Long id) {
-        if (repository.existsById(id)){
-            repository.deleteById(id);
-        } else {
+        // Also flushes and clears the persistence context, so no loaded student outlives its row.
+        assignmentRepository.deleteByStudentId(id);
+        enrollmentCounts.removeStudent(id);
+        jdbcTemplate.update(DELETE_ENROLLMENTS_SQL, id);
+
+        List<Long> addressIds = jdbcTemplate.queryForList(deleteStudentSql(), Long.class, id);
+        if (addressIds.isEmpty()) {
             throw new ResourceNotFoundException(ERROR_MESSAGE + id);
         }
+        if (addressIds.getFirst() != null) {
+            repository.deleteAddressById(addressIds.getFirst());
+        }
+        searchIndex.remove(id);
+
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictCollectionData(Student.class.getName() + ".courses", id);
+        cache.evictCollectionData(Course.class.getName() + ".students");
     }
 
+    // PostgreSQL returns the deleted row with RETURNING; H2 reads it from the standard OLD TABLE.
+    private String deleteStudentSql() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                instanceof PostgreSQLDialect ? DELETE_STUDENT_RETURNING_SQL : DELETE_STUDENT_FROM_OLD_TABLE_SQL;
+    }
+
+    @Transactional
     public Student updateById(Long id, StudentDto studentDto) {
-        Student foundStudent = findById(id);
+        return updateById(id, studentDto, null);
+    }
+
+    /**
+     * Applies the update only if the student is still at one of {@code expectedVersions}; null
+     * updates unconditionally.
+     */
+    @Transactional
+    public Student updateById(Long id, StudentDto studentDto, Set<Long> expectedVersions) {
+        Student foundStudent = findCurrent(id, expectedVersions);
+        requireUniqueEmail(studentDto.getEmail(), foundStudent);
         studentMapper.updateStudentFromDto(studentDto, foundStudent);
 
-        return repository.save(foundStudent);
+        return saveWithNewVersion(foundStudent);
     }
 
+    @Transactional
     public Student patchById(Long id, StudentDto studentDto) {
-        Student foundStudent = findById(id);
+        return patchById(id, studentDto, null);
+    }
+
+    @Transactional
+    public Student patchById(Long id, StudentDto studentDto, Set<Long> expectedVersions) {
+        Student foundStudent = findCurrent(id, expectedVersions);
+        requireUniqueEmail(studentDto.getEmail(), foundStudent);
 
         studentMapper.patchStudentFromDto(studentDto, foundStudent);
 
-        return repository.save(foundStudent);
+        return saveWithNewVersion(foundStudent);
+    }
+
+    private Student findCurrent(Long id, Set<Long> expectedVersions) {
+        Student foundStudent = findById(id);
+        if (expectedVersions != null && !expectedVersions.contains(foundStudent.getVersion())) {
+            throw new PreconditionFailedException("Student with id " + id + " was modified");
+        }
+        return foundStudent;
+    }
+
+    /**
+     * Only an email the filter might know is looked up. A duplicate written concurrently after the
+     * check is stopped by the unique index on students.email.
+     */
+    private void requireUniqueEmail(String email, Student student) {
+        if (email == null || student != null && email.equals(student.getEmail()) || !studentEmails.mightContain(email)) {
+            return;
+        }
+        if (repository.findIdByEmail(email).isPresent()) {
+            throw new UniqueFieldException(DUPLICATE_EMAIL_MESSAGE + email);
+        }
+    }
+
+    // Hibernate bumps the version when it writes the student row. An address edited in place leaves
+    // the row untouched, so only then is the version bumped explicitly.
+    private Student saveWithNewVersion(Student student) {
+        Long version = student.getVersion();
+        Student savedStudent = repository.saveAndFlush(student);
+        if (Objects.equals(version, savedStudent.getVersion())) {
+            studentVersions.increment(List.of(savedStudent.getId()));
+        }
+        searchIndex.put(savedStudent);
+
+        return savedStudent;
     }
 }
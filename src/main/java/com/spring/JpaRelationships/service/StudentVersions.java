@@ -0,0 +1,65 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.entity.Student;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bumps the version, and with it the ETag, of students whose representation changed without
+ * Hibernate updating the student row: enrollments, assignments or an address edited in place.
+ * The update goes through JDBC so Hibernate does not invalidate the cached enrollment collections.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class StudentVersions {
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INCREMENT_SQL = "update students set version = version + 1 where id = ?";
+    private static final String INCREMENT_BY_ASSIGNMENT_SQL =
+            "update students set version = version + 1 where id = (select student_id from assignments where id = ?)";
+
+    public void increment(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, List.copyOf(studentIds), BATCH_SIZE, (ps, id) -> ps.setLong(1, id));
+
+        studentIds.forEach(this::refreshIfLoaded);
+    }
+
+    /**
+     * @return false if there is no such student
+     */
+    public boolean increment(Long studentId) {
+        entityManager.flush();
+        if (jdbcTemplate.update(INCREMENT_SQL, studentId) == 0) {
+            return false;
+        }
+
+        refreshIfLoaded(studentId);
+        return true;
+    }
+
+    private void refreshIfLoaded(Long studentId) {
+        Student student = entityManager.getReference(Student.class, studentId);
+        if (Hibernate.isInitialized(student)) {
+            entityManager.refresh(student);
+        }
+    }
+
+    public void incrementByAssignment(Long assignmentId) {
+        entityManager.flush();
+        jdbcTemplate.update(INCREMENT_BY_ASSIGNMENT_SQL, assignmentId);
+    }
+}
@@ -0,0 +1,398 @@
+package com.spring.JpaRelationships.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads a synthetic dataset for benchmarks: students with addresses, enrollments whose course
+ * popularity follows a Zipf distribution, and assignments due across their terms. The same seed and
+ * scale always produce the same rows; one unit of scale is {@code data-generator.students-per-scale}
+ * students, about 1.2 million rows with the defaults.
+ * <p>
+ * Rows are generated in chunks of {@code data-generator.chunk-size} students by a single seeded
+ * random stream, and each chunk is written with JDBC batch inserts in its own transaction by one of
+ * {@code data-generator.threads} writers. On PostgreSQL, add {@code reWriteBatchedInserts=true} to
+ * the JDBC URL so each batch is sent as multi-row inserts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+public class SyntheticDataGenerator {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CourseService courseService;
+    private final StudentEmails studentEmails;
+    private final StudentSearchIndex searchIndex;
+
+    @Value("${data-generator.students-per-scale:100000}")
+    private int studentsPerScale;
+
+    @Value("${data-generator.courses:500}")
+    private int courseCount;
+
+    @Value("${data-generator.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${data-generator.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${data-generator.threads:2}")
+    private int threads;
+
+    private static final double COURSE_POPULARITY_EXPONENT = 1.1;
+    private static final double CITY_POPULARITY_EXPONENT = 1.0;
+    // Share of students taking 1, 2, ... 6 courses
+    private static final double[] COURSES_PER_STUDENT = {0.10, 0.20, 0.30, 0.25, 0.10, 0.05};
+    private static final LocalDate FIRST_TERM = LocalDate.of(2021, 9, 1);
+    private static final int TERMS = 8;
+    private static final int TERM_WEEKS = 16;
+    // Hibernate's pooled optimizer hands out the ids below each sequence value
+    private static final int SEQUENCE_ALLOCATION = 50;
+
+    private static final String[] FIRST_NAMES = {"Alex", "Maria", "Ivan", "Elena", "Georgi", "Anna", "Peter", "Sofia",
+            "Nikolay", "Victoria", "Daniel", "Nora", "Martin", "Eva", "Samuel", "Lea", "Omar", "Yara", "Lucas", "Mila",
+            "Jonas", "Iris", "Leo", "Clara", "Hugo", "Zoe", "Felix", "Ada", "Oscar", "Rosa"};
+    private static final String[] LAST_NAMES = {"Ivanov", "Petrova", "Smith", "Garcia", "Muller", "Rossi", "Novak",
+            "Kowalski", "Jensen", "Dubois", "Silva", "Nagy", "Popescu", "Horvat", "Yilmaz", "Larsen", "Costa", "Weber",
+            "Fischer", "Moreau", "Berg", "Lindqvist", "Kovacs", "Santos", "Young", "Walker", "Hughes", "Evans", "Reed", "Ward"};
+    private static final String[] CITIES = {"Sofia", "Plovdiv", "Varna", "Burgas", "Ruse", "Stara Zagora", "Pleven",
+            "Sliven", "Dobrich", "Shumen", "Pernik", "Haskovo", "Yambol", "Pazardzhik", "Blagoevgrad", "Veliko Tarnovo",
+            "Vratsa", "Gabrovo", "Asenovgrad", "Vidin", "Kazanlak", "Kyustendil", "Kardzhali", "Montana", "Dimitrovgrad"};
+    private static final String[] STREETS = {"Main", "Oak", "Vitosha", "Rakovski", "Church", "Station", "Mill", "Park",
+            "Lake", "Hill", "Bridge", "Market", "River", "Garden", "School"};
+    private static final String[][] SUBJECTS = {{"CS", "Computer Science"}, {"MA", "Mathematics"}, {"PH", "Physics"},
+            {"CH", "Chemistry"}, {"BI", "Biology"}, {"EC", "Economics"}, {"HI", "History"}, {"LI", "Literature"},
+            {"PS", "Psychology"}, {"ST", "Statistics"}, {"PL", "Philosophy"}, {"EN", "Engineering"}};
+    private static final String[] ASSIGNMENT_KINDS = {"Homework", "Lab", "Quiz", "Essay", "Project"};
+
+    private static final String COURSE_SQL = "insert into courses (id, code, name, enrollment_count) values (?, ?, ?, 0)";
+    private static final String ADDRESS_SQL = "insert into addresses (id, street, zip_code, city) values (?, ?, ?, ?)";
+    private static final String STUDENT_SQL = """
+            insert into students (id, name, email, address_id, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, 0)""";
+    private static final String ENROLLMENT_SQL = "insert into student_course (student_id, course_id) values (?, ?)";
+    private static final String ASSIGNMENT_SQL = """
+            insert into assignments (id, title, due_date, student_id, version)
+            values (?, ?, ?, ?, 0)""";
+    private static final String COUNT_SQL = "update courses set enrollment_count = ? where id = ?";
+
+    /**
+     * Loads the dataset into a database without students. Existing courses are kept and not enrolled in.
+     */
+    public Summary generate(long seed, double scale) {
+        int studentCount = (int) Math.round(scale * studentsPerScale);
+        if (studentCount < 1) {
+            throw new IllegalArgumentException("Scale " + scale + " generates no students");
+        }
+        if (jdbcTemplate.queryForObject("select count(*) from students", Long.class) > 0) {
+            throw new IllegalStateException("Synthetic data only loads into a database without students");
+        }
+
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        Ids ids = new Ids(maxId("courses"), maxId("addresses"), maxId("students"), maxId("assignments"));
+
+        List<Course> courses = courses(random, ids);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(COURSE_SQL, courses, batchSize, (ps, course) -> {
+            ps.setLong(1, course.id());
+            ps.setString(2, course.code());
+            ps.setString(3, course.name());
+        }));
+
+        long[] enrolled = new long[courses.size()];
+        long enrollments = 0;
+        long assignments = 0;
+        ChunkWriter writer = new ChunkWriter(Math.max(threads, 1));
+        try {
+            for (int first = 0; first < studentCount; first += chunkSize) {
+                Chunk chunk = chunk(random, ids, courses, first, Math.min(chunkSize, studentCount - first), enrolled);
+                enrollments += chunk.enrollments().size();
+                assignments += chunk.assignments().size();
+                writer.submit(chunk);
+            }
+            writer.awaitAll();
+        } finally {
+            writer.shutdown();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(COUNT_SQL, courses, batchSize, (ps, course) -> {
+            ps.setLong(1, enrolled[course.rank()]);
+            ps.setLong(2, course.id());
+        }));
+
+        restartSequence("courses_seq", ids.course);
+        restartSequence("addresses_seq", ids.address);
+        restartSequence("students_seq", ids.student);
+        restartSequence("assignments_seq", ids.assignment);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAll();
+        courseService.refreshCatalogAsync();
+        studentEmails.rebuildAsync();
+        searchIndex.rebuildAsync();
+
+        Summary summary = new Summary(courses.size(), studentCount, enrollments, assignments,
+                Duration.ofNanos(System.nanoTime() - started));
+        log.info("Generated {} rows (seed {}, scale {}) in {} ms, {} rows/s", summary.rows(), seed, scale,
+                summary.elapsed().toMillis(), Math.round(summary.rows() / Math.max(summary.elapsed().toNanos() / 1e9, 1e-3)));
+        return summary;
+    }
+
+    // Course codes are unique by construction; popularity rank is assigned by a seeded shuffle so
+    // the most popular courses are spread over the id range.
+    private List<Course> courses(SplittableRandom random, Ids ids) {
+        int[] ranks = new int[courseCount];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = i;
+        }
+        for (int i = ranks.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = swap;
+        }
+
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            String[] subject = SUBJECTS[i % SUBJECTS.length];
+            int number = 100 + i / SUBJECTS.length;
+            courses.add(new Course(++ids.course, subject[0] + number, subject[1] + " " + number, ranks[i]));
+        }
+        courses.sort((a, b) -> Integer.compare(a.rank(), b.rank()));
+        return courses;
+    }
+
+    private Chunk chunk(SplittableRandom random, Ids ids, List<Course> byRank, int firstStudent, int size, long[] enrolled) {
+        ZipfSampler coursePopularity = new ZipfSampler(byRank.size(), COURSE_POPULARITY_EXPONENT);
+        ZipfSampler cityPopularity = new ZipfSampler(CITIES.length, CITY_POPULARITY_EXPONENT);
+        Chunk chunk = new Chunk(new ArrayList<>(size), new ArrayList<>(size), new ArrayList<>(size * 4), new ArrayList<>(size * 8));
+
+        for (int n = firstStudent; n < firstStudent + size; n++) {
+            int city = cityPopularity.sample(random);
+            long addressId = ++ids.address;
+            chunk.addresses().add(new AddressRow(addressId,
+                    (1 + random.nextInt(200)) + " " + STREETS[random.nextInt(STREETS.length)] + " Street",
+                    String.valueOf(1000 + city * 100 + random.nextInt(100)),
+                    CITIES[city]));
+
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            LocalDate termStart = termStart(random.nextInt(TERMS));
+            LocalDateTime createdAt = termStart.minusDays(random.nextInt(60)).atStartOfDay().plusSeconds(random.nextInt(86_400));
+            long studentId = ++ids.student;
+            chunk.students().add(new StudentRow(studentId, firstName + " " + lastName,
+                    (firstName + "." + lastName + "." + n + "@example.edu").toLowerCase(), addressId,
+                    createdAt, createdAt.plusDays(random.nextInt(180))));
+
+            for (Course course : enrollments(random, byRank, coursePopularity)) {
+                chunk.enrollments().add(new EnrollmentRow(studentId, course.id()));
+                enrolled[course.rank()]++;
+
+                int count = 1 + random.nextInt(3);
+                for (int k = 1; k <= count; k++) {
+                    chunk.assignments().add(new AssignmentRow(++ids.assignment,
+                            course.code() + " " + ASSIGNMENT_KINDS[random.nextInt(ASSIGNMENT_KINDS.length)] + " " + k,
+                            dueDate(termStart, random), studentId));
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static Set<Course> enrollments(SplittableRandom random, List<Course> byRank, ZipfSampler popularity) {
+        double roll = random.nextDouble();
+        int wanted = COURSES_PER_STUDENT.length;
+        for (int i = 0; i < COURSES_PER_STUDENT.length; i++) {
+            roll -= COURSES_PER_STUDENT[i];
+            if (roll < 0) {
+                wanted = i + 1;
+                break;
+            }
+        }
+
+        Set<Course> courses = new LinkedHashSet<>();
+        // Bounded, since a tiny course list may not have enough distinct courses
+        for (int attempt = 0; courses.size() < Math.min(wanted, byRank.size()) && attempt < wanted * 20; attempt++) {
+            courses.add(byRank.get(popularity.sample(random)));
+        }
+        return courses;
+    }
+
+    private static LocalDate termStart(int term) {
+        int year = FIRST_TERM.getYear() + (term + 1) / 2;
+        return term % 2 == 0 ? LocalDate.of(year, 9, 1) : LocalDate.of(year, 2, 1);
+    }
+
+    // Spread over the whole term with bunching at midterms and finals, mostly due on Fridays
+    private static LocalDate dueDate(LocalDate termStart, SplittableRandom random) {
+        double roll = random.nextDouble();
+        int week = roll < 0.2 ? 6 + random.nextInt(3)
+                : roll < 0.4 ? TERM_WEEKS - 3 + random.nextInt(3)
+                : random.nextInt(TERM_WEEKS);
+        int day = random.nextDouble() < 0.7 ? 4 : random.nextInt(7);
+        return termStart.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)).plusWeeks(week).plusDays(day);
+    }
+
+    private void write(Chunk chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(ADDRESS_SQL, chunk.addresses(), batchSize, (ps, row) -> {
+                ps.setLong(1, row.id());
+                ps.setString(2, row.street());
+                ps.setString(3, row.zipCode());
+                ps.setString(4, row.city());
+            });
+            jdbcTemplate.batchUpdate(STUDENT_SQL, chunk.students(), batchSize, (ps, row) -> {
+                ps.setLong(1, row.id());
+                ps.setString(2, row.name());
+                ps.setString(3, row.email());
+                ps.setLong(4, row.addressId());
+                ps.setTimestamp(5, Timestamp.valueOf(row.createdAt()));
+                ps.setTimestamp(6, Timestamp.valueOf(row.updatedAt()));
+            });
+            jdbcTemplate.batchUpdate(ENROLLMENT_SQL, chunk.enrollments(), batchSize, (ps, row) -> {
+                ps.setLong(1, row.studentId());
+                ps.setLong(2, row.courseId());
+            });
+            jdbcTemplate.batchUpdate(ASSIGNMENT_SQL, chunk.assignments(), batchSize, (ps, row) -> {
+                ps.setLong(1, row.id());
+                ps.setString(2, row.title());
+                ps.setDate(3, Date.valueOf(row.dueDate()));
+                ps.setLong(4, row.studentId());
+            });
+        });
+    }
+
+    private long maxId(String table) {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+    }
+
+    private void restartSequence(String sequence, long maxId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + SEQUENCE_ALLOCATION + 1));
+    }
+
+    public record Summary(long courses, long students, long enrollments, long assignments, Duration elapsed) {
+        /** Every student comes with an address. */
+        public long rows() {
+            return courses + 2 * students + enrollments + assignments;
+        }
+    }
+
+    /**
+     * Writes chunks on a fixed pool, holding at most two chunks per writer in memory.
+     */
+    private class ChunkWriter {
+        private final ExecutorService executor;
+        private final Semaphore inFlight;
+        private final List<Future<?>> written = new ArrayList<>();
+
+        ChunkWriter(int writers) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(writers, runnable -> {
+                Thread thread = new Thread(runnable, "data-generator-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            inFlight = new Semaphore(writers * 2);
+        }
+
+        void submit(Chunk chunk) {
+            // Fails fast instead of generating the rest of a dataset that cannot be written
+            for (Iterator<Future<?>> futures = written.iterator(); futures.hasNext(); ) {
+                Future<?> future = futures.next();
+                if (future.isDone()) {
+                    join(future);
+                    futures.remove();
+                }
+            }
+
+            inFlight.acquireUninterruptibly();
+            written.add(executor.submit(() -> {
+                try {
+                    write(chunk);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        void awaitAll() {
+            written.forEach(this::join);
+            written.clear();
+        }
+
+        private void join(Future<?> future) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while writing synthetic data", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Could not write synthetic data", ex.getCause());
+            }
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Ids {
+        private long course;
+        private long address;
+        private long student;
+        private long assignment;
+
+        Ids(long course, long address, long student, long assignment) {
+            this.course = course;
+            this.address = address;
+            this.student = student;
+            this.assignment = assignment;
+        }
+    }
+
+    private record Course(long id, String code, String name, int rank) {
+    }
+
+    private record Chunk(List<AddressRow> addresses, List<StudentRow> students, List<EnrollmentRow> enrollments,
+                         List<AssignmentRow> assignments) {
+    }
+
+    private record AddressRow(long id, String street, String zipCode, String city) {
+    }
+
+    private record StudentRow(long id, String name, String email, long addressId, LocalDateTime createdAt,
+                              LocalDateTime updatedAt) {
+    }
+
+    private record EnrollmentRow(long studentId, long courseId) {
+    }
+
+    private record AssignmentRow(long id, String title, LocalDate dueDate, long studentId) {
+    }
+}
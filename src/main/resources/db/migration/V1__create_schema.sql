@@ -0,0 +1,56 @@
+-- The schema for the current model: pooled sequences, version columns, enrollment_count and the
+-- student_course primary key. Schemas built by the earlier ddl-auto=create setup do not match it
+-- and held no data worth keeping, since they were recreated on every start; drop them and let
+-- Flyway migrate an empty database.
+
+create sequence addresses_seq start with 1 increment by 50;
+create sequence assignments_seq start with 1 increment by 50;
+create sequence courses_seq start with 1 increment by 50;
+create sequence students_seq start with 1 increment by 50;
+
+create table addresses (
+    id       bigint not null,
+    city     varchar(255),
+    street   varchar(255),
+    zip_code varchar(255),
+    primary key (id)
+);
+
+create table students (
+    id         bigint       not null,
+    name       varchar(255),
+    email      varchar(255),
+    address_id bigint,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    version    bigint,
+    primary key (id),
+    constraint uk_students_address_id unique (address_id),
+    constraint fk_students_address foreign key (address_id) references addresses (id)
+);
+
+create table courses (
+    id               bigint not null,
+    code             varchar(255),
+    name             varchar(255),
+    enrollment_count bigint not null,
+    primary key (id)
+);
+
+create table assignments (
+    id         bigint not null,
+    title      varchar(255),
+    due_date   date,
+    student_id bigint,
+    version    bigint,
+    primary key (id),
+    constraint fk_assignments_student foreign key (student_id) references students (id)
+);
+
+create table student_course (
+    course_id  bigint not null,
+    student_id bigint not null,
+    primary key (course_id, student_id),
+    constraint fk_student_course_course foreign key (course_id) references courses (id),
+    constraint fk_student_course_student foreign key (student_id) references students (id)
+);
@@ -0,0 +1,13 @@
+-- Indexes for the repository queries; H2RepositoryIndexUsageIT and PostgresRepositoryIndexUsageIT fail
+-- when a query is not served by one.
+-- Lookups by course_id already use the student_course primary key, and students.address_id is
+-- indexed by its unique constraint.
+
+create index if not exists idx_student_course_student on student_course (student_id, course_id);
+
+-- Also serves every lookup by student_id alone, such as loading a student's assignments.
+create index if not exists idx_assignments_student_due_date on assignments (student_id, due_date, id);
+create index if not exists idx_assignments_due_date on assignments (due_date, id);
+
+create index if not exists idx_courses_code on courses (code);
+create index if not exists idx_students_email on students (email);
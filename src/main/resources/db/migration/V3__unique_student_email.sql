@@ -0,0 +1,10 @@
+-- Email identifies a student. StudentService and StudentImportService reject a duplicate before it
+-- is written; this index stops the ones that race past the check. It replaces the plain lookup index.
+
+-- Databases migrated to V2 may already hold duplicates: the oldest student keeps the email and the
+-- others are left without one, as students may be.
+update students set email = null
+where exists (select 1 from students earlier where earlier.email = students.email and earlier.id < students.id);
+
+drop index if exists idx_students_email;
+create unique index uk_students_email on students (email);
@@ -0,0 +1,118 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JpaRelationships.dto.AssignmentDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.service.AssignmentService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AssignmentBatchInsertBenchmarkIT {
+    private static final int ASSIGNMENT_COUNT = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Student testStudent;
+    private List<AssignmentDto> dtoList;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        testStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder()
+                .name("Benchmark student")
+                .email("benchmark@email.com")
+                .build()));
+
+        dtoList = IntStream.range(0, ASSIGNMENT_COUNT)
+                .mapToObj(i -> new AssignmentDto("Assignment " + i, LocalDate.of(2025, 9, 1).plusDays(i % 90)))
+                .toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteById(testStudent.getId());
+    }
+
+    @Test
+    void createAll_shouldBatchInserts() throws Exception {
+        long unbatched = roundTrips(() -> transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            assignmentService.saveAll(testStudent.getId(), dtoList);
+        }));
+
+        long batched = roundTrips(() -> mockMvc.perform(post("/api/students/" + testStudent.getId() + "/assignments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dtoList)))
+                .andExpect(status().isCreated()));
+
+        System.out.printf("POST %d assignments: %d statements unbatched, %d statements batched%n",
+                ASSIGNMENT_COUNT, unbatched, batched);
+
+        assertTrue(unbatched >= ASSIGNMENT_COUNT);
+        assertTrue(batched <= ASSIGNMENT_COUNT / 10, "Expected batched inserts, got " + batched + " statements");
+    }
+
+    private long roundTrips(ThrowingRunnable action) throws Exception {
+        statistics.clear();
+        action.run();
+        assertEquals(ASSIGNMENT_COUNT, statistics.getEntityInsertCount());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
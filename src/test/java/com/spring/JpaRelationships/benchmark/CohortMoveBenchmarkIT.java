@@ -0,0 +1,79 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.spring.JpaRelationships.dto.EnrollmentResultDto;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.service.EnrollmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "query-budget.enabled=false")
+@ActiveProfiles("test")
+class CohortMoveBenchmarkIT {
+    private static final int COHORT_SIZE = 2000;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private List<Long> studentIds;
+    private Course source;
+    private Course target;
+
+    @BeforeEach
+    void setUp() {
+        List<Course> courses = courseRepository.findAll();
+        source = courses.getFirst();
+        target = courses.getLast();
+
+        studentIds = studentRepository.saveAll(IntStream.range(0, COHORT_SIZE)
+                        .mapToObj(i -> {
+                            Student student = new Student();
+                            student.setName("Cohort student " + i);
+                            return student;
+                        })
+                        .toList())
+                .stream()
+                .map(Student::getId)
+                .toList();
+
+        enrollmentService.enrollStudents(source.getId(), studentIds);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentService.unenrollStudents(target.getId(), studentIds);
+        studentRepository.deleteAllByIdInBatch(studentIds);
+    }
+
+    @Test
+    void moveStudents_cohort_shouldCompleteInUnderASecond() {
+        long start = System.nanoTime();
+        List<EnrollmentResultDto> results = enrollmentService.moveStudents(source.getId(), target.getId(), studentIds);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Moved %d students in %d ms%n", COHORT_SIZE, millis);
+
+        assertEquals(COHORT_SIZE, results.stream()
+                .filter(result -> result.getOutcome() == EnrollmentResultDto.Outcome.MOVED)
+                .count());
+        assertTrue(millis < 1000, "Cohort move took " + millis + " ms");
+    }
+}
@@ -0,0 +1,271 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JpaRelationships.dto.CourseDto;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.mapper.CourseMapper;
+import com.spring.JpaRelationships.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-model load test: every endpoint gets its own Poisson arrival process at a share of
+ * {@code loadtest.rate}, so requests keep arriving at the configured rate however slowly the
+ * server answers. Latency is measured from the scheduled arrival, not from when the request
+ * was sent. Per-endpoint throughput and percentiles are written to {@code loadtest.output} as
+ * JSON. Run with {@code mvn test -P load-test}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "query-budget.enabled=false"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "loadtest.rate", matches = "\\d+(\\.\\d+)?")
+class EndpointLoadBenchmarkIT {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+    private final long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+    private final long seconds = Long.getLong("loadtest.seconds", 30);
+    private final int studentCount = Integer.getInteger("loadtest.students", 10_000);
+    private final int courseCount = Integer.getInteger("loadtest.courses", 50);
+    private final int assignmentsPerStudent = Integer.getInteger("loadtest.assignments-per-student", 5);
+    private final int coursesPerStudent = Integer.getInteger("loadtest.courses-per-student", 3);
+    private final long seed = Long.getLong("loadtest.seed", 42);
+    private final Path output = Path.of(System.getProperty("loadtest.output", "target/load-test/results.json"));
+
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void setUp() {
+        courseIds = courseRepository.saveAll(IntStream.range(0, courseCount)
+                        .mapToObj(i -> courseMapper.toEntity(new CourseDto("LT" + i, "Load test course " + i, 0)))
+                        .toList())
+                .stream()
+                .map(Course::getId)
+                .toList();
+
+        jdbcTemplate.update("""
+                insert into addresses (id, street, zip_code, city)
+                select x, 'Street ' || x, lpad(mod(x, 10000), 4, '0'), 'City ' || mod(x, 100)
+                from system_range(1, ?)""", studentCount);
+        jdbcTemplate.update("""
+                insert into students (id, name, email, address_id, created_at, updated_at, version)
+                select x, 'Student ' || x, 'student' || x || '@email.com', x, current_timestamp, current_timestamp, 0
+                from system_range(1, ?)""", studentCount);
+        jdbcTemplate.update("""
+                insert into assignments (id, student_id, title, due_date, version)
+                select x, mod(x, ?) + 1, 'Assignment ' || x, dateadd('DAY', mod(x, 120), date '2025-09-01'), 0
+                from system_range(1, ?)""", studentCount, (long) studentCount * assignmentsPerStudent);
+        jdbcTemplate.update("""
+                insert into student_course (student_id, course_id)
+                select distinct s.x, c.id
+                from system_range(1, ?) s
+                join (select id, row_number() over (order by id) - 1 as n from courses) c
+                  on mod(s.x * 7 + c.n, (select count(*) from courses)) < ?""", studentCount, coursesPerStudent);
+
+        restartSequence("addresses_seq", "addresses");
+        restartSequence("students_seq", "students");
+        restartSequence("assignments_seq", "assignments");
+    }
+
+    @Test
+    void mixedWorkload_shouldReportLatencyPercentilesPerEndpoint() throws Exception {
+        long assignmentCount = (long) studentCount * assignmentsPerStudent;
+        List<Endpoint> endpoints = List.of(
+                new Endpoint("GET /api/students/{id}", 25,
+                        random -> get("/api/students/" + studentId(random))),
+                new Endpoint("GET /api/students", 5,
+                        random -> get("/api/students?limit=20")),
+                new Endpoint("GET /api/students/{id}/courses", 10,
+                        random -> get("/api/students/" + studentId(random) + "/courses")),
+                new Endpoint("PATCH /api/students/{id}", 5,
+                        random -> send("PATCH", "/api/students/" + studentId(random), "{\"name\":\"Patched " + random.nextInt(1000) + "\"}")),
+                new Endpoint("GET /api/courses", 15,
+                        random -> get("/api/courses")),
+                new Endpoint("GET /api/courses/{id}", 10,
+                        random -> get("/api/courses/" + courseIds.get(random.nextInt(courseIds.size())))),
+                new Endpoint("GET /api/courses/{id}/students", 5,
+                        random -> get("/api/courses/" + courseIds.get(random.nextInt(courseIds.size())) + "/students?limit=20")),
+                new Endpoint("GET /api/students/{id}/assignments", 10,
+                        random -> get("/api/students/" + studentId(random) + "/assignments")),
+                new Endpoint("GET /api/assignments/{id}", 10,
+                        random -> get("/api/assignments/" + (random.nextLong(assignmentCount) + 1))),
+                new Endpoint("POST /api/students/{id}/assignments", 5,
+                        random -> send("POST", "/api/students/" + studentId(random) + "/assignments",
+                                "[{\"title\":\"Load test\",\"dueDate\":\"2025-10-01\"}]")));
+
+        double totalWeight = endpoints.stream().mapToDouble(Endpoint::weight).sum();
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * NANOS_PER_SECOND;
+        long end = measureFrom + seconds * NANOS_PER_SECOND;
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> generators = new ArrayList<>();
+
+            for (int i = 0; i < endpoints.size(); i++) {
+                Endpoint endpoint = endpoints.get(i);
+                double endpointRate = rate * endpoint.weight() / totalWeight;
+                Random random = new Random(seed + i);
+
+                generators.add(Thread.ofVirtual().start(() -> {
+                    long arrival = start;
+                    while (true) {
+                        arrival += (long) (-Math.log(1 - random.nextDouble()) / endpointRate * NANOS_PER_SECOND);
+                        if (arrival >= end) {
+                            return;
+                        }
+
+                        HttpRequest request = endpoint.request().apply(random);
+                        long scheduled = arrival;
+                        LockSupport.parkNanos(scheduled - System.nanoTime());
+
+                        requests.submit(() -> {
+                            boolean ok;
+                            try {
+                                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                ok = status < 400;
+                            } catch (Exception ex) {
+                                ok = false;
+                            }
+
+                            if (scheduled >= measureFrom) {
+                                endpoint.record(System.nanoTime() - scheduled, ok);
+                            }
+                            return null;
+                        });
+                    }
+                }));
+            }
+
+            for (Thread generator : generators) {
+                generator.join();
+            }
+        }
+
+        List<EndpointResult> results = endpoints.stream()
+                .map(endpoint -> endpoint.result(seconds))
+                .toList();
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), new Report(new Config(rate, warmupSeconds, seconds,
+                studentCount, courseCount, assignmentsPerStudent, coursesPerStudent, seed), results));
+
+        System.out.printf("%n%-36s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms");
+        results.forEach(result -> System.out.printf("%-36s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                result.endpoint(), result.requests(), result.errors(), result.throughput(),
+                result.p50Millis(), result.p95Millis(), result.p99Millis(), result.p999Millis()));
+        System.out.println("Results written to " + output.toAbsolutePath());
+
+        results.forEach(result -> {
+            assertTrue(result.requests() > 0, result.endpoint() + " received no requests");
+            assertEquals(0, result.errors(), result.endpoint() + " returned errors");
+        });
+    }
+
+    private long studentId(Random random) {
+        return random.nextInt(studentCount) + 1;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void restartSequence(String sequence, String table) {
+        Long next = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 100 from " + table, Long.class);
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + next);
+    }
+
+    private static double percentile(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private record Endpoint(String name, double weight, Function<Random, HttpRequest> request,
+                            Queue<Long> latencies, LongAdder errors) {
+        Endpoint(String name, double weight, Function<Random, HttpRequest> request) {
+            this(name, weight, request, new ConcurrentLinkedQueue<>(), new LongAdder());
+        }
+
+        void record(long latencyNanos, boolean ok) {
+            latencies.add(latencyNanos);
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        EndpointResult result(long seconds) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            sorted.sort(null);
+
+            return new EndpointResult(name, sorted.size(), errors.sum(), sorted.size() / (double) seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+    }
+
+    private record EndpointResult(String endpoint, long requests, long errors, double throughput,
+                                  double p50Millis, double p95Millis, double p99Millis, double p999Millis) {
+    }
+
+    private record Config(double rate, long warmupSeconds, long seconds, int students, int courses,
+                          int assignmentsPerStudent, int coursesPerStudent, long seed) {
+    }
+
+    private record Report(Config config, List<EndpointResult> endpoints) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.spring.JpaRelationships.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Time to first request and resident memory at that moment, for the packaged application started
+ * as it is today and in fast-startup mode: the extracted jar with Spring AOT, the class-data-sharing
+ * archive from the training run and the fast-startup profile. Every run is a fresh JVM. Run with
+ * {@code mvn verify -P fast-startup -Dfaststartup.runs=10}; by default each instance gets its own
+ * in-memory H2 database, {@code faststartup.datasource.url} (with {@code .username}, {@code .password}
+ * and {@code .dialect}) points them at a real one.
+ */
+@EnabledIfSystemProperty(named = "faststartup.runs", matches = "\\d+")
+class FastStartupBenchmarkIT {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final int runs = Integer.getInteger("faststartup.runs");
+    private final Path jar = Path.of(System.getProperty("faststartup.jar"));
+    private final Path fastStartupDirectory = Path.of(System.getProperty("faststartup.directory"));
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void compareStartupModes() throws Exception {
+        Mode current = new Mode("current", jar.getParent(), List.of("-jar", jar.getFileName().toString()));
+        Mode fastStartup = new Mode("fast-startup", fastStartupDirectory, List.of(
+                "-XX:SharedArchiveFile=application.jsa",
+                "-Dspring.aot.enabled=true",
+                "-jar", jar.getFileName().toString(),
+                "--spring.profiles.active=fast-startup"));
+
+        // Warms the file system cache for both
+        start(current);
+        start(fastStartup);
+
+        List<Start> currentStarts = new ArrayList<>();
+        List<Start> fastStarts = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            currentStarts.add(start(current));
+            fastStarts.add(start(fastStartup));
+        }
+
+        System.out.printf("%nStartup over %d runs, first request is GET /api/courses%n", runs);
+        System.out.printf("%-13s %12s %12s %12s %12s%n", "mode", "min ms", "p50 ms", "max ms", "p50 RSS MB");
+        print(current, currentStarts);
+        print(fastStartup, fastStarts);
+
+        assertTrue(fastStarts.stream().allMatch(start -> start.millis() > 0));
+    }
+
+    private Start start(Mode mode) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(mode.arguments());
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        command.add("--spring.datasource.url=" + System.getProperty("faststartup.datasource.url", "jdbc:h2:mem:startup"));
+        command.add("--spring.datasource.username=" + System.getProperty("faststartup.datasource.username", "sa"));
+        command.add("--spring.datasource.password=" + System.getProperty("faststartup.datasource.password", ""));
+        command.add("--spring.jpa.properties.hibernate.dialect="
+                + System.getProperty("faststartup.datasource.dialect", "org.hibernate.dialect.H2Dialect"));
+
+        Path log = Files.createDirectories(mode.directory().resolve("benchmark-logs")).resolve(mode.name() + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.directory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            awaitFirstRequest(process, port, log);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new Start(millis, residentMegabytes(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void awaitFirstRequest(Process process, int port, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/courses")).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                fail("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        fail("No response within " + START_TIMEOUT + ", see " + log);
+    }
+
+    // Linux only; elsewhere the column stays empty
+    private static double residentMegabytes(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return Double.NaN;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToDouble(line -> Long.parseLong(line.replaceAll("\\D", "")) / 1024.0)
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private static void print(Mode mode, List<Start> starts) {
+        List<Long> millis = starts.stream().map(Start::millis).sorted().toList();
+        List<Double> rss = starts.stream().map(Start::rssMegabytes).sorted().toList();
+        System.out.printf("%-13s %12d %12d %12d %12.1f%n", mode.name(),
+                millis.getFirst(), millis.get((millis.size() - 1) / 2), millis.getLast(), rss.get((rss.size() - 1) / 2));
+    }
+
+    private record Mode(String name, Path directory, List<String> arguments) {
+    }
+
+    private record Start(long millis, double rssMegabytes) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.spring.JpaRelationships.JpaRelationshipsApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Startup time with Hibernate rebuilding the schema on every start, as {@code ddl-auto=create} did,
+ * against Flyway finding nothing to migrate and Hibernate validating the schema. Each mode restarts
+ * the application against its own database, which survives between starts like a real one does.
+ * Run with {@code mvn test -P startup-benchmark}; set {@code startupbench.url} (and
+ * {@code startupbench.username}, {@code startupbench.password}) to compare on a scratch PostgreSQL
+ * database, which both modes then share, create first.
+ */
+@EnabledIfSystemProperty(named = "startupbench.runs", matches = "\\d+")
+class SchemaStartupBenchmarkIT {
+    private final int runs = Integer.getInteger("startupbench.runs");
+    private final String url = System.getProperty("startupbench.url");
+
+    @Test
+    void compareSchemaModes() {
+        Mode create = new Mode("ddl-auto=create", url("create"),
+                "spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create");
+        Mode validate = new Mode("flyway + validate", url("validate"),
+                "spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=validate");
+
+        // The first start of the JVM pays for class loading and JIT, and Flyway's first start migrates
+        start(create).close();
+        start(validate).close();
+
+        List<Long> createMillis = new ArrayList<>();
+        List<Long> validateMillis = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            createMillis.add(time(create));
+            validateMillis.add(time(validate));
+        }
+
+        System.out.printf("%nApplication startup over %d runs, %s%n", runs, url == null ? "in-memory H2" : url);
+        System.out.printf("%-18s %8s %8s %8s%n", "schema", "min ms", "p50 ms", "max ms");
+        print(create, createMillis);
+        print(validate, validateMillis);
+
+        assertTrue(Stream.concat(createMillis.stream(), validateMillis.stream()).allMatch(millis -> millis > 0));
+    }
+
+    private String url(String mode) {
+        return url != null ? url : "jdbc:h2:mem:startup-" + mode + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private long time(Mode mode) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext ignored = start(mode)) {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    private ConfigurableApplicationContext start(Mode mode) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=" + mode.url(),
+                "spring.jpa.show-sql=false",
+                "query-budget.enabled=false",
+                "logging.level.root=WARN"));
+        if (mode.url().startsWith("jdbc:postgresql:")) {
+            properties.addAll(List.of(
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.datasource.username=" + System.getProperty("startupbench.username", "postgres"),
+                    "spring.datasource.password=" + System.getProperty("startupbench.password", "postgres"),
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"));
+        }
+        properties.addAll(mode.properties());
+
+        // As arguments, so they win over application-test.properties
+        return new SpringApplicationBuilder(JpaRelationshipsApplication.class)
+                .profiles("test")
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static void print(Mode mode, List<Long> millis) {
+        List<Long> sorted = millis.stream().sorted().toList();
+        System.out.printf("%-18s %8d %8d %8d%n", mode.name(), sorted.getFirst(), sorted.get((sorted.size() - 1) / 2), sorted.getLast());
+    }
+
+    private record Mode(String name, String url, List<String> properties) {
+        Mode(String name, String url, String... properties) {
+            this(name, url, List.of(properties));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Assignment;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.AssignmentRepository;
+import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.service.EnrollmentService;
+import com.spring.JpaRelationships.service.StudentService;
+import com.spring.JpaRelationships.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentDeleteBenchmarkIT {
+    private static final int ASSIGNMENT_COUNT = 1000;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void deleteById_studentWithThousandAssignments_shouldUseConstantStatements() throws Exception {
+        Student cascaded = createStudent("Cascaded");
+        Student bulk = createStudent("Bulk");
+
+        // Statements are counted on this thread only, since enrollment count changes refresh the course
+        // catalog in the background. Entity deletes only happen on this thread.
+        statistics.clear();
+        long start = System.nanoTime();
+        long cascadedStatements = QueryCounter.count(() -> studentRepository.deleteById(cascaded.getId())).total();
+        long cascadedMillis = (System.nanoTime() - start) / 1_000_000;
+        long cascadedEntityDeletes = statistics.getEntityDeleteCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        long bulkStatements = QueryCounter.count(() -> studentService.deleteById(bulk.getId())).total();
+        long bulkMillis = (System.nanoTime() - start) / 1_000_000;
+        long bulkEntityDeletes = statistics.getEntityDeleteCount();
+
+        System.out.printf("Delete student with %d assignments: cascaded %d statements (%d entity deletes) in %d ms, " +
+                        "bulk %d statements (%d entity deletes) in %d ms%n",
+                ASSIGNMENT_COUNT, cascadedStatements, cascadedEntityDeletes, cascadedMillis,
+                bulkStatements, bulkEntityDeletes, bulkMillis);
+
+        assertFalse(studentRepository.existsById(bulk.getId()));
+        assertTrue(assignmentRepository.findAllByStudentId(bulk.getId()).isEmpty());
+        assertEquals(0, studentRepository.findEnrolledCourseIds(bulk.getId(),
+                courseRepository.findAll().stream().map(Course::getId).toList()).size());
+        assertTrue(bulkStatements <= 6, "Expected set-based deletes, got " + bulkStatements + " statements");
+        assertEquals(0, bulkEntityDeletes);
+        assertTrue(cascadedEntityDeletes > ASSIGNMENT_COUNT);
+    }
+
+    private Student createStudent(String name) {
+        Student student = studentMapper.toEntity(StudentDto.builder()
+                .name(name)
+                .address(AddressDto.builder().city(name + " city").build())
+                .build());
+        student.getAssignments().addAll(IntStream.range(0, ASSIGNMENT_COUNT)
+                .mapToObj(i -> new Assignment(null, "Assignment " + i, LocalDate.of(2025, 9, 1), student, null))
+                .toList());
+
+        Student saved = studentRepository.save(student);
+        enrollmentService.enrollInCourses(saved.getId(), courseRepository.findAll().stream().map(Course::getId).toList());
+        return saved;
+    }
+}
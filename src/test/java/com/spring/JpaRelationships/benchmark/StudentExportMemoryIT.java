@@ -0,0 +1,88 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.spring.JpaRelationships.service.StudentExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a synthetic dataset through {@link StudentExportService} under the heap limit set by the
+ * {@code export-memory} Maven profile; buffering the export would fail with an OutOfMemoryError.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/export-memory/db;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "query-budget.enabled=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "export.students", matches = "\\d+")
+class StudentExportMemoryIT {
+    @Autowired
+    private StudentExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long studentCount;
+
+    @BeforeEach
+    void setUp() {
+        studentCount = Long.getLong("export.students");
+
+        jdbcTemplate.update("""
+                insert into addresses (id, street, zip_code, city)
+                select x, 'Street ' || x, lpad(mod(x, 10000), 4, '0'), 'City ' || mod(x, 100)
+                from system_range(1, ?)""", studentCount);
+        jdbcTemplate.update("""
+                insert into students (id, name, email, address_id, created_at, updated_at)
+                select x, 'Student ' || x, 'student' || x || '@email.com', x, current_timestamp, current_timestamp
+                from system_range(1, ?)""", studentCount);
+        jdbcTemplate.update("""
+                insert into student_course (student_id, course_id)
+                select s.id, c.id from students s, courses c where mod(s.id, 3) = mod(c.id, 3)""");
+        jdbcTemplate.update("""
+                insert into assignments (id, student_id, title, due_date)
+                select x, mod(x, ?) + 1, 'Assignment ' || x, dateadd('DAY', mod(x, 120), date '2025-09-01')
+                from system_range(1, ?)""", studentCount, studentCount * 2);
+    }
+
+    @Test
+    void export_largeDataset_shouldStreamWithinHeapLimit() {
+        LineCountingOutputStream output = new LineCountingOutputStream();
+
+        long start = System.nanoTime();
+        exportService.export(StudentExportService.Format.CSV, output);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Exported %d students in %d ms, max heap %d MB%n",
+                studentCount, millis, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        assertEquals(studentCount + 1, output.lines);
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.spring.JpaRelationships.benchmark;
+
+import com.spring.JpaRelationships.JpaRelationshipsApplication;
+import com.spring.JpaRelationships.config.VirtualThreadPinningMonitor;
+import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-model load test of {@code GET /api/students/{id}} with platform and virtual request
+ * threads, at several connection-pool sizes. Every JDBC statement is delayed to simulate a slow
+ * database. Run with {@code mvn test -P load-benchmark}.
+ */
+@EnabledIfSystemProperty(named = "loadbench.pool-sizes", matches = ".+")
+class VirtualThreadLoadBenchmarkIT {
+    private static final int STUDENT_COUNT = 500;
+
+    private final int concurrency = Integer.getInteger("loadbench.concurrency", 400);
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("loadbench.warmup-seconds", 3));
+    private final Duration duration = Duration.ofSeconds(Long.getLong("loadbench.seconds", 10));
+    private final long dbLatencyMillis = Long.getLong("loadbench.db-latency-ms", 5);
+
+    @Test
+    void compareThreadModes() throws Exception {
+        int[] poolSizes = Arrays.stream(System.getProperty("loadbench.pool-sizes").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        List<Result> results = new ArrayList<>();
+        for (int poolSize : poolSizes) {
+            results.add(run(poolSize, false));
+            results.add(run(poolSize, true));
+        }
+
+        System.out.printf("%nGET /api/students/{id}, %d clients, %d ms per statement%n", concurrency, dbLatencyMillis);
+        System.out.printf("%-9s %5s %12s %9s %9s %7s %7s%n", "mode", "pool", "req/s", "p50 ms", "p99 ms", "errors", "pinned");
+        results.forEach(result -> System.out.printf("%-9s %5d %12.1f %9.1f %9.1f %7d %7d%n",
+                result.virtual() ? "virtual" : "platform", result.poolSize(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.errors(), result.pinned()));
+
+        results.forEach(result -> {
+            assertTrue(result.throughput() > 0);
+            assertEquals(0, result.errors());
+            assertEquals(0, result.pinned(), "Virtual threads were pinned");
+        });
+    }
+
+    private Result run(int poolSize, boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = start(poolSize, virtual);
+             HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            List<Long> ids = seed(context);
+
+            drive(client, port, ids, warmup);
+            List<Long> latencies = new ArrayList<>();
+            long errors = 0;
+            for (Load load : drive(client, port, ids, duration)) {
+                latencies.addAll(load.latencies());
+                errors += load.errors();
+            }
+
+            long pinned = context.getBeanProvider(VirtualThreadPinningMonitor.class)
+                    .stream()
+                    .mapToLong(VirtualThreadPinningMonitor::getPinnedCount)
+                    .sum();
+            latencies.sort(null);
+
+            return new Result(virtual, poolSize, latencies.size() / (double) duration.toSeconds(),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), errors, pinned);
+        }
+    }
+
+    private ConfigurableApplicationContext start(int poolSize, boolean virtual) {
+        return new SpringApplicationBuilder(JpaRelationshipsApplication.class)
+                .profiles(virtual ? new String[]{"test", "virtual-threads"} : new String[]{"test"})
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "spring.jpa.show-sql=false",
+                        "query-budget.enabled=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowJdbc(dbLatencyMillis)))
+                .run();
+    }
+
+    private List<Long> seed(ConfigurableApplicationContext context) {
+        StudentMapper studentMapper = context.getBean(StudentMapper.class);
+
+        return context.getBean(StudentRepository.class).saveAll(IntStream.range(0, STUDENT_COUNT)
+                        .mapToObj(i -> studentMapper.toEntity(StudentDto.builder()
+                                .name("Student " + i)
+                                .email("student" + i + "@email.com")
+                                .address(AddressDto.builder().city("City " + i % 50).build())
+                                .build()))
+                        .toList())
+                .stream()
+                .map(Student::getId)
+                .toList();
+    }
+
+    private List<Load> drive(HttpClient client, int port, List<Long> ids, Duration length) throws Exception {
+        long end = System.nanoTime() + length.toNanos();
+        List<Future<Load>> clients = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    long errors = 0;
+                    while (System.nanoTime() < end) {
+                        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/students/" + id)).build();
+
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - start);
+                        if (response.statusCode() != 200) {
+                            errors++;
+                        }
+                    }
+                    return new Load(latencies, errors);
+                }));
+            }
+        }
+
+        List<Load> loads = new ArrayList<>();
+        for (Future<Load> future : clients) {
+            loads.add(future.get());
+        }
+        return loads;
+    }
+
+    private static double percentile(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private record Load(List<Long> latencies, long errors) {
+    }
+
+    private record Result(boolean virtual, int poolSize, double throughput, double p50Millis, double p99Millis,
+                          long errors, long pinned) {
+    }
+
+    /**
+     * Wraps the pooled data source so every statement execution holds its connection for an
+     * extra, fixed time, like a database on the other side of a slow network.
+     */
+    private record SlowJdbc(long latencyMillis) implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return proxy(Connection.class, super.getConnection());
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(latencyMillis);
+                }
+
+                try {
+                    Object result = method.invoke(target, args);
+                    return result instanceof PreparedStatement statement && method.getName().startsWith("prepare") ?
+                            proxy(PreparedStatement.class, statement) :
+                            result;
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.spring.JpaRelationships.benchmark.jmh;
+
+import com.spring.JpaRelationships.dto.AssignmentDto;
+import com.spring.JpaRelationships.entity.Assignment;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.AssignmentMapper;
+import com.spring.JpaRelationships.mapper.AssignmentMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mapping a batch of assignment DTOs onto new and existing entities, as in a bulk create and a
+ * bulk patch of one student's assignments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AssignmentMapperBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int assignmentCount;
+
+    private AnnotationConfigApplicationContext context;
+    private AssignmentMapper assignmentMapper;
+    private Student student;
+    private List<AssignmentDto> dtoList;
+    private List<AssignmentDto> patchList;
+    private List<Assignment> assignments;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(AssignmentMapperImpl.class);
+        assignmentMapper = context.getBean(AssignmentMapper.class);
+
+        student = new Student();
+        student.setId(1L);
+        dtoList = IntStream.range(0, assignmentCount)
+                .mapToObj(i -> new AssignmentDto("Assignment " + i, LocalDate.of(2025, 9, 1).plusDays(i % 90)))
+                .toList();
+        patchList = IntStream.range(0, assignmentCount)
+                .mapToObj(i -> new AssignmentDto(null, LocalDate.of(2025, 12, 1).plusDays(i % 30)))
+                .toList();
+        assignments = dtoList.stream()
+                .map(dto -> assignmentMapper.toEntity(dto, student))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Assignment> toEntity() {
+        List<Assignment> result = new ArrayList<>(dtoList.size());
+        for (AssignmentDto dto : dtoList) {
+            result.add(assignmentMapper.toEntity(dto, student));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Assignment> updateAssignmentFromDto() {
+        for (int i = 0; i < assignmentCount; i++) {
+            assignmentMapper.updateAssignmentFromDto(dtoList.get(i), assignments.get(i));
+        }
+        return assignments;
+    }
+
+    @Benchmark
+    public List<Assignment> patchAssignmentFromDto() {
+        for (int i = 0; i < assignmentCount; i++) {
+            assignmentMapper.patchAssignmentFromDto(patchList.get(i), assignments.get(i));
+        }
+        return assignments;
+    }
+}
@@ -0,0 +1,80 @@
+package com.spring.JpaRelationships.benchmark.jmh;
+
+import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Address;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.AddressMapperImpl;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.mapper.StudentMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full and partial updates of a student, with and without an address to merge into, so the
+ * qualified address delegation is measured on both of its branches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StudentMapperBenchmark {
+    @Param({"true", "false"})
+    private boolean existingAddress;
+
+    private AnnotationConfigApplicationContext context;
+    private StudentMapper studentMapper;
+    private StudentDto fullDto;
+    private StudentDto partialDto;
+    private Student student;
+    private Address address;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(StudentMapperImpl.class, AddressMapperImpl.class);
+        studentMapper = context.getBean(StudentMapper.class);
+
+        fullDto = StudentDto.builder()
+                .name("Benchmark student")
+                .email("benchmark@email.com")
+                .address(AddressDto.builder().street("1 Main St").zipCode("12345").city("Springfield").build())
+                .build();
+        partialDto = StudentDto.builder()
+                .email("patched@email.com")
+                .address(AddressDto.builder().city("Shelbyville").build())
+                .build();
+
+        student = studentMapper.toEntity(fullDto);
+        student.setId(1L);
+        address = student.getAddress();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student updateStudentFromDto() {
+        student.setAddress(existingAddress ? address : null);
+        studentMapper.updateStudentFromDto(fullDto, student);
+        return student;
+    }
+
+    @Benchmark
+    public Student patchStudentFromDto() {
+        student.setAddress(existingAddress ? address : null);
+        studentMapper.patchStudentFromDto(partialDto, student);
+        return student;
+    }
+
+    @Benchmark
+    public StudentDto toDto() {
+        student.setAddress(existingAddress ? address : null);
+        return studentMapper.toDto(student);
+    }
+}
@@ -0,0 +1,94 @@
+package com.spring.JpaRelationships.benchmark.jmh;
+
+import com.spring.JpaRelationships.service.StudentSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First pages of student searches over an index of a few million students with generated names:
+ * a short prefix shared by many name tokens, a full surname, a prefix within one city, and a city.
+ * The index is built from an in-memory H2 table holding only the columns it reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StudentSearchBenchmark {
+    private static final String[] SYLLABLES = {"ba", "ko", "mi", "ra", "sen", "tor", "vel", "an", "dri", "lo",
+            "ne", "pa", "qui", "sto", "yev", "za", "mar", "el", "iv", "gor"};
+    private static final int LIMIT = 101;
+
+    @Param({"1000000", "3000000"})
+    private int studentCount;
+
+    private DriverManagerDataSource dataSource;
+    private StudentSearchIndex index;
+    private String surname;
+
+    @Setup
+    public void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:search-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table addresses (id bigint primary key, city varchar(255))");
+        jdbcTemplate.execute("create table students (id bigint primary key, name varchar(255), address_id bigint)");
+        jdbcTemplate.update("""
+                insert into addresses (id, city)
+                select x, 'City ' || mod(x, 500) from system_range(1, ?)""", studentCount);
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int id = 1; id <= studentCount; id++) {
+            rows.add(new Object[]{id, word(random, 2) + " " + word(random, 3), id});
+            if (rows.size() == 10_000 || id == studentCount) {
+                jdbcTemplate.batchUpdate("insert into students (id, name, address_id) values (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        surname = word(new SplittableRandom(7), 3);
+
+        index = new StudentSearchIndex(jdbcTemplate);
+        index.rebuild();
+    }
+
+    private static String word(SplittableRandom random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        new JdbcTemplate(dataSource).execute("shutdown");
+    }
+
+    @Benchmark
+    public List<Long> shortPrefix() {
+        return index.search("ko", null, 0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> surname() {
+        return index.search(surname, null, 0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> prefixInCity() {
+        return index.search("mar", "City 42", 0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> city() {
+        return index.search(null, "City 42", 0, LIMIT);
+    }
+}
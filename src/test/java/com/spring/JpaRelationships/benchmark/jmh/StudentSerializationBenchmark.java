@@ -0,0 +1,85 @@
+package com.spring.JpaRelationships.benchmark.jmh;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.spring.JpaRelationships.dto.AssignmentDto;
+import com.spring.JpaRelationships.entity.Address;
+import com.spring.JpaRelationships.entity.Assignment;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Writing a student entity graph the way {@code GET /api/students/{id}} does, through the
+ * managed/back references, and reading a bulk assignment request body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StudentSerializationBenchmark {
+    @Param({"0", "10", "100", "1000"})
+    private int assignmentCount;
+
+    @Param({"0", "5", "50"})
+    private int courseCount;
+
+    private ObjectWriter studentWriter;
+    private ObjectReader assignmentReader;
+    private Student student;
+    private byte[] assignmentJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same defaults as the mapper Spring Boot auto-configures
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        studentWriter = objectMapper.writerFor(Student.class);
+        assignmentReader = objectMapper.readerFor(new TypeReference<List<AssignmentDto>>() {});
+
+        student = new Student();
+        student.setId(1L);
+        student.setName("Benchmark student");
+        student.setEmail("benchmark@email.com");
+        student.setCreatedAt(LocalDateTime.of(2025, 9, 1, 8, 0));
+        student.setUpdatedAt(LocalDateTime.of(2025, 9, 1, 8, 0));
+        student.setVersion(0L);
+        student.setAddress(new Address(1L, "1 Main St", "12345", "Springfield", student));
+        student.setAssignments(LongStream.range(0, assignmentCount)
+                .mapToObj(i -> new Assignment(i, "Assignment " + i, LocalDate.of(2025, 9, 1).plusDays(i % 90), student, 0L))
+                .collect(Collectors.toList()));
+        student.setCourses(LongStream.range(0, courseCount)
+                .mapToObj(i -> new Course(i, "C" + i, "Course " + i, 1, new HashSet<>(List.of(student))))
+                .collect(Collectors.toSet()));
+
+        assignmentJson = objectMapper.writeValueAsBytes(student.getAssignments().stream()
+                .map(assignment -> new AssignmentDto(assignment.getTitle(), assignment.getDueDate()))
+                .toList());
+    }
+
+    @Benchmark
+    public byte[] writeStudent() throws IOException {
+        return studentWriter.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public List<AssignmentDto> readAssignments() throws IOException {
+        return assignmentReader.readValue(assignmentJson);
+    }
+}
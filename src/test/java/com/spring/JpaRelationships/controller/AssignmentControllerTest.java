@@ -8,14 +8,18 @@ import com.spring.JpaRelationships.entity.Assignment;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.mapper.AssignmentMapper;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
 import com.spring.JpaRelationships.repository.AssignmentRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.support.QueryBudget;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -53,6 +57,9 @@ class AssignmentControllerTest {
     @Autowired
     private AssignmentMapper assignmentMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Student testStudent;
     private List<Assignment> testAssignments;
 
@@ -83,11 +90,18 @@ class AssignmentControllerTest {
         testStudent = studentRepository.save(testStudent);
     }
 
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     @Test
     void getAllAssignments_shouldReturnAllAssignments() throws Exception{
-        mockMvc.perform(get("/api/assignments"))
+        flushAndClear();
+
+        QueryBudget.atMost().selects(1).noWrites().verify(() -> mockMvc.perform(get("/api/assignments"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(3));
+                .andExpect(jsonPath("$.length()").value(3)));
 
         List<Assignment> foundAssignments = assignmentRepository.findAll();
         assertEquals(3, foundAssignments.size());
@@ -95,6 +109,20 @@ class AssignmentControllerTest {
         assertEquals(testAssignments.getLast(), foundAssignments.getLast());
     }
 
+    @Test
+    void getAllAssignments_withLimit_shouldPageByCursor() throws Exception{
+        String cursor = mockMvc.perform(get("/api/assignments").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(testAssignments.getFirst().getId()))
+                .andReturn().getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/api/assignments").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testAssignments.getLast().getId()));
+    }
+
     @Test
     void getAllAssignments_shouldReturnEmptyList() throws Exception{
         assignmentRepository.deleteAll();
@@ -105,9 +133,11 @@ class AssignmentControllerTest {
 
     @Test
     void getAllByStudentId_validStudentId_shouldReturnAllAssignments() throws Exception {
-        mockMvc.perform(get("/api/students/" + testStudent.getId() + "/assignments"))
+        flushAndClear();
+
+        QueryBudget.atMost().selects(1).noWrites().verify(() -> mockMvc.perform(get("/api/students/" + testStudent.getId() + "/assignments"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(3));
+                .andExpect(jsonPath("$.length()").value(3)));
 
         List<Assignment> foundAssignments = assignmentRepository.findAllByStudentId(testStudent.getId());
         assertEquals(testAssignments, foundAssignments);
@@ -119,19 +149,76 @@ class AssignmentControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void getDueBetween_shouldPageByDueDateThenId() throws Exception{
+        Student otherStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder().name("Other").build()));
+        Assignment sameDay = assignmentRepository.save(
+                assignmentMapper.toEntity(new AssignmentDto("Other assignment", LocalDate.of(2025, 8, 15)), otherStudent));
+        flushAndClear();
+
+        String cursor = mockMvc.perform(get("/api/assignments")
+                        .param("dueFrom", "2025-08-14")
+                        .param("dueTo", "2025-08-20")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(testAssignments.get(1).getId()))
+                .andExpect(jsonPath("$[1].id").value(sameDay.getId()))
+                .andExpect(jsonPath("$[1].studentId").value(otherStudent.getId()))
+                .andReturn().getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+
+        QueryBudget.atMost().selects(1).noWrites().verify(() -> mockMvc.perform(get("/api/assignments")
+                        .param("dueFrom", "2025-08-14")
+                        .param("dueTo", "2025-08-20")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testAssignments.getLast().getId()))
+                .andExpect(jsonPath("$[0].dueDate").value("2025-08-20")));
+    }
+
+    @Test
+    void getDueBetweenByStudentId_shouldReturnOnlyStudentsAssignmentsInRange() throws Exception{
+        Student otherStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder().name("Other").build()));
+        assignmentRepository.save(assignmentMapper.toEntity(new AssignmentDto("Other assignment", LocalDate.of(2025, 8, 14)), otherStudent));
+        flushAndClear();
+
+        QueryBudget.atMost().selects(1).noWrites().verify(() -> mockMvc.perform(get("/api/students/" + testStudent.getId() + "/assignments")
+                        .param("dueFrom", "2025-08-13")
+                        .param("dueTo", "2025-08-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Assignment 1"))
+                .andExpect(jsonPath("$[1].title").value("Assignment 2")));
+    }
+
+    @Test
+    void getDueBetween_invalidCursor_shouldReturnBadRequest() throws Exception{
+        mockMvc.perform(get("/api/assignments")
+                        .param("dueFrom", "2025-08-14")
+                        .param("dueTo", "2025-08-20")
+                        .param("cursor", CursorPage.class.getSimpleName()))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createAll_validStudentId_shouldSaveAssignmentList() throws Exception{
         List<AssignmentDto> dtoList = List.of(
                 new AssignmentDto("New assignment 1", LocalDate.of(2025, 9, 12)),
                 new AssignmentDto("New assignment 2", LocalDate.of(2025, 9, 11))
         );
-
-        mockMvc.perform(post("/api/students/" + testStudent.getId() + "/assignments")
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(dtoList)))
-                .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.length()").value(2));
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(2).inserts(1).updates(1).deletes(0).verify(() -> {
+            mockMvc.perform(post("/api/students/" + testStudent.getId() + "/assignments")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(dtoList)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.length()").value(2));
+            entityManager.flush();
+        });
 
         List<Assignment> allAssignments = assignmentRepository.findAll();
 
@@ -158,9 +245,13 @@ class AssignmentControllerTest {
     @Test
     void deleteById_validId_shouldDeleteAssignment() throws Exception{
         Assignment assignment = testAssignments.getFirst();
+        entityManager.flush();
 
-        mockMvc.perform(delete("/api/assignments/" + assignment.getId()))
-                .andExpect(status().isNoContent());
+        QueryBudget.atMost().selects(0).inserts(0).updates(1).deletes(1).verify(() -> {
+            mockMvc.perform(delete("/api/assignments/" + assignment.getId()))
+                    .andExpect(status().isNoContent());
+            entityManager.flush();
+        });
 
         testAssignments = assignmentRepository.findAll();
 
@@ -177,8 +268,13 @@ class AssignmentControllerTest {
 
     @Test
     void deleteAllByStudentId_validStudentId_shouldDeleteAllAssignments() throws Exception {
-        mockMvc.perform(delete("/api/students/" + testStudent.getId() + "/assignments"))
-                .andExpect(status().isNoContent());
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(2).inserts(0).updates(1).deletes(1).verify(() -> {
+            mockMvc.perform(delete("/api/students/" + testStudent.getId() + "/assignments"))
+                    .andExpect(status().isNoContent());
+            entityManager.flush();
+        });
 
         assertTrue(assignmentRepository.findAll().isEmpty());
     }
@@ -195,15 +291,19 @@ class AssignmentControllerTest {
     void updateAssignment_existent_shouldUpdateAssignment() throws Exception{
         Assignment assignment = testAssignments.getFirst();
         AssignmentDto dto = new AssignmentDto("Updated assignment", null);
-
-        mockMvc.perform(put("/api/assignments/" + assignment.getId())
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(dto)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(assignment.getId()))
-                .andExpect(jsonPath("$.title").value(dto.getTitle()))
-                .andExpect(jsonPath("$.dueDate").doesNotExist());
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(2).inserts(0).updates(2).deletes(0).verify(() -> {
+            mockMvc.perform(put("/api/assignments/" + assignment.getId())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(assignment.getId()))
+                    .andExpect(jsonPath("$.title").value(dto.getTitle()))
+                    .andExpect(jsonPath("$.dueDate").doesNotExist());
+            entityManager.flush();
+        });
 
         Optional<Assignment> updatedAssignment = assignmentRepository.findById(assignment.getId());
 
@@ -212,6 +312,39 @@ class AssignmentControllerTest {
         assertNull(updatedAssignment.get().getDueDate());
     }
 
+    @Test
+    void getAssignment_shouldReturnAssignment() throws Exception{
+        flushAndClear();
+
+        QueryBudget.atMost().selects(1).noWrites().verify(() -> mockMvc.perform(get("/api/assignments/" + testAssignments.getFirst().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Assignment 1")));
+    }
+
+    @Test
+    void getAssignment_matchingIfNoneMatch_shouldReturnNotModified() throws Exception{
+        entityManager.flush();
+        String eTag = mockMvc.perform(get("/api/assignments/" + testAssignments.getFirst().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Assignment 1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        QueryBudget.atMost().selects(1).noWrites().verify(() -> mockMvc.perform(get("/api/assignments/" + testAssignments.getFirst().getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified()));
+    }
+
+    @Test
+    void updateAssignment_staleIfMatch_shouldReturnPreconditionFailed() throws Exception{
+        mockMvc.perform(put("/api/assignments/" + testAssignments.getFirst().getId())
+                        .header(HttpHeaders.IF_MATCH, "\"999\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new AssignmentDto("Lost update", null))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Assignment 1", assignmentRepository.findById(testAssignments.getFirst().getId()).orElseThrow().getTitle());
+    }
+
     @Test
     void updateAssignment_nonExistent_shouldReturnNotFound() throws Exception{
         AssignmentDto dto = new AssignmentDto("Updated assignment", null);
@@ -226,17 +359,21 @@ class AssignmentControllerTest {
     void patchAssignment_existent_shouldPerformPartialUpdate() throws Exception{
         Assignment assignment = testAssignments.getFirst();
         AssignmentDto dto = new AssignmentDto(null, LocalDate.now());
-
-        mockMvc.perform(patch("/api/assignments/" + assignment.getId())
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(dto)))
-                .andExpect(status().isOk())
-                .andExpectAll(
-                       jsonPath("$.id").value(assignment.getId()),
-                       jsonPath("$.title").value(assignment.getTitle()),
-                       jsonPath("$.dueDate").value(dto.getDueDate().toString())
-                );
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(2).inserts(0).updates(2).deletes(0).verify(() -> {
+            mockMvc.perform(patch("/api/assignments/" + assignment.getId())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                           jsonPath("$.id").value(assignment.getId()),
+                           jsonPath("$.title").value(assignment.getTitle()),
+                           jsonPath("$.dueDate").value(dto.getDueDate().toString())
+                    );
+            entityManager.flush();
+        });
 
         Optional<Assignment> updatedAssignment = assignmentRepository.findById(assignment.getId());
 
@@ -5,14 +5,18 @@ import com.spring.JpaRelationships.dto.StudentDto;
 import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
 import com.spring.JpaRelationships.repository.CourseRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.support.QueryBudget;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -41,6 +45,9 @@ class CourseControllerIT {
     @Autowired
     private StudentMapper studentMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private List<Course> testCourses;
     private Student testStudent;
 
@@ -74,19 +81,49 @@ class CourseControllerIT {
         return courseRepository.save(course);
     }
 
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     @Test
     void getAll_shouldReturnAllCourses() throws Exception{
-        mockMvc.perform(get("/api/courses"))
+        QueryBudget.atMost().selects(0).noWrites().verify(() -> mockMvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(testCourses.size())));
+    }
+
+    @Test
+    void getById_shouldReturnCourse() throws Exception{
+        Course course = testCourses.getFirst();
+
+        QueryBudget.atMost().selects(0).noWrites().verify(() -> mockMvc.perform(get("/api/courses/" + course.getId()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(testCourses.size()));
+                .andExpect(jsonPath("$.code").value(course.getCode())));
+    }
+
+    @Test
+    void getByCode_shouldReturnCourse() throws Exception{
+        QueryBudget.atMost().selects(0).noWrites().verify(() -> mockMvc.perform(get("/api/courses").param("code", "SB"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Spring Boot")));
+    }
+
+    @Test
+    void getById_invalidId_shouldReturnNotFound() throws Exception{
+        mockMvc.perform(get("/api/courses/999"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
     void getStudents_shouldReturnStudentList() throws Exception{
         Course course = courseRepository.findAll().getFirst();
-        mockMvc.perform(get("/api/courses/" + course.getId() + "/students"))
+        Long courseId = course.getId();
+        flushAndClear();
+
+        QueryBudget.atMost().selects(2).noWrites().verify(() -> mockMvc.perform(get("/api/courses/" + courseId + "/students"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.length()").value(1)));
 
         course = courseRepository.findById(course.getId()).orElseThrow();
 
@@ -97,25 +134,63 @@ class CourseControllerIT {
     void getStudents_shouldReturnNoContent() throws Exception{
         Course course = courseRepository.findAll().getFirst();
         course.getStudents().clear();
+        testStudent.getCourses().remove(course);
         course = courseRepository.findById(course.getId()).orElseThrow();
 
         mockMvc.perform(get("/api/courses/" + course.getId() + "/students"))
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void getStudents_withLimit_shouldReturnNextCursor() throws Exception{
+        Course course = testCourses.getFirst();
+        Student secondStudent = studentMapper.toEntity(StudentDto.builder()
+                .name("Second student")
+                .email("second@email.com")
+                .build());
+        secondStudent.getCourses().add(course);
+        studentRepository.save(secondStudent);
+
+        String cursor = mockMvc.perform(get("/api/courses/" + course.getId() + "/students")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value(testStudent.getName()))
+                .andReturn().getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/api/courses/" + course.getId() + "/students")
+                        .param("limit", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Second student"))
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getStudents_invalidCourseId_shouldReturnNotFound() throws Exception{
+        mockMvc.perform(get("/api/courses/" + any(Long.class) + "/students"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void addStudent_validCourseId_shouldAddStudentToCourse() throws Exception{
         StudentDto dto = StudentDto.builder()
                 .name("Student dto")
-                .email("student@email.com")
+                .email("dto@email.com")
                 .build();
         Student student = studentRepository.save(studentMapper.toEntity(dto));
         Course course = testCourses.getFirst();
-
-        mockMvc.perform(post("/api/courses/" + course.getId() + "/students")
-                .param("studentId", student.getId().toString()))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Student was added successfully."));
+        Long courseId = course.getId();
+        Long studentId = student.getId();
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(4).inserts(1).updates(2).deletes(0).verify(() -> {
+            mockMvc.perform(post("/api/courses/" + courseId + "/students")
+                    .param("studentId", studentId.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Student was added successfully."));
+            entityManager.flush();
+        });
 
         student = studentRepository.findById(student.getId()).orElseThrow();
         course = courseRepository.findById(course.getId()).orElseThrow();
@@ -138,13 +213,66 @@ class CourseControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void addStudents_shouldReturnOutcomePerStudent() throws Exception{
+        Student student = studentRepository.save(studentMapper.toEntity(StudentDto.builder()
+                .name("Bulk student")
+                .build()));
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(5).inserts(1).updates(2).deletes(0).verify(() -> {
+            mockMvc.perform(post("/api/courses/" + testCourses.getFirst().getId() + "/students/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + student.getId() + "," + testStudent.getId() + "]"))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                            jsonPath("$[0].outcome").value("ENROLLED"),
+                            jsonPath("$[1].outcome").value("ALREADY_ENROLLED")
+                    );
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    void deleteStudents_shouldReturnOutcomePerStudent() throws Exception{
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(6).inserts(0).updates(2).deletes(1).verify(() -> {
+            mockMvc.perform(delete("/api/courses/" + testCourses.getFirst().getId() + "/students/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + testStudent.getId() + ", 999]"))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                            jsonPath("$[0].outcome").value("UNENROLLED"),
+                            jsonPath("$[1].outcome").value("NOT_FOUND")
+                    );
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    void moveStudents_invalidTargetCourse_shouldReturnNotFound() throws Exception{
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(2).noWrites().verify(() -> mockMvc.perform(post("/api/courses/" + testCourses.getFirst().getId() + "/students/move")
+                        .param("targetCourseId", "999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + testStudent.getId() + "]"))
+                .andExpect(status().isNotFound()));
+    }
+
     @Test
     void deleteStudent_validCourseAndStudent_shouldDeleteStudent() throws Exception{
         Course course = testCourses.getFirst();
-
-        mockMvc.perform(delete("/api/courses/" + course.getId() + "/students")
-                .param("studentId", testStudent.getId().toString()))
-                .andExpect(status().isNoContent());
+        Long courseId = course.getId();
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(5).inserts(0).updates(2).deletes(1).verify(() -> {
+            mockMvc.perform(delete("/api/courses/" + courseId + "/students")
+                    .param("studentId", testStudent.getId().toString()))
+                    .andExpect(status().isNoContent());
+            entityManager.flush();
+        });
 
         course = courseRepository.findById(course.getId()).orElseThrow();
         testStudent = studentRepository.findById(testStudent.getId()).orElseThrow();
@@ -2,24 +2,34 @@ package com.spring.JpaRelationships.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.AssignmentDto;
 import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Assignment;
 import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
 import com.spring.JpaRelationships.repository.CourseRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.support.QueryBudget;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
-import org.junit.jupiter.api.BeforeAll;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -45,12 +55,16 @@ class StudentControllerIT {
     @Autowired
     private StudentMapper studentMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Student testStudent;
-    private static StudentDto studentDto;
+    private StudentDto studentDto;
     private static Course course;
 
-    @BeforeAll
-    static void beforeAll() {
+    // Built for every test, since tests change the DTO they send.
+    @BeforeEach
+    void setUp() {
         AddressDto addressDto = AddressDto.builder()
                 .street("Test street")
                 .zipCode("1234")
@@ -62,10 +76,7 @@ class StudentControllerIT {
                 .email("student@email.com")
                 .address(addressDto)
                 .build();
-    }
 
-    @BeforeEach
-    void setUp() {
         testStudent = studentRepository.save(studentMapper.toEntity(studentDto));
         course = courseRepository.findAll().getFirst();
     }
@@ -73,16 +84,21 @@ class StudentControllerIT {
     @Test
     void createStudent_shouldSaveStudent() throws Exception {
         studentRepository.deleteAll();
-
-        mockMvc.perform(post("/api/students")
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(studentDto)))
-                .andExpect(status().isCreated())
-                .andExpectAll(
-                        jsonPath("$.name").value(studentDto.getName()),
-                        jsonPath("$.email").value(studentDto.getEmail())
-                );
+        entityManager.flush();
+
+        // The email is still in the filter after the delete, so it is looked up once.
+        QueryBudget.atMost().selects(1).inserts(2).updates(0).deletes(0).verify(() -> {
+            mockMvc.perform(post("/api/students")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(studentDto)))
+                    .andExpect(status().isCreated())
+                    .andExpectAll(
+                            jsonPath("$.name").value(studentDto.getName()),
+                            jsonPath("$.email").value(studentDto.getEmail())
+                    );
+            entityManager.flush();
+        });
 
         Student student = studentRepository.findAll().getFirst();
 
@@ -92,11 +108,70 @@ class StudentControllerIT {
     }
 
     @Test
-    void addCourse_validData_shouldAddCourse() throws Exception{
-        mockMvc.perform(post("/api/students/" + testStudent.getId() + "/courses")
-                .param("courseId", course.getId().toString()))
+    void createStudent_duplicateEmail_shouldReturnConflict() throws Exception {
+        studentRepository.save(studentWithEmail("taken@email.com"));
+
+        mockMvc.perform(post("/api/students")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(StudentDto.builder().name("Duplicate").email("taken@email.com").build())))
+                .andExpect(status().isConflict());
+
+        assertEquals(2, studentRepository.count());
+    }
+
+    @Test
+    void importStudents_ndjson_shouldReturnSummary() throws Exception {
+        String content = """
+                {"name":"Imported student","email":"imported@email.com"}
+                {"name":"No email"}
+                """;
+
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(0).inserts(1).updates(0).deletes(0).verify(() -> mockMvc.perform(post("/api/students/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(content))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Course was successfully added."));
+                .andExpectAll(
+                        jsonPath("$.accepted").value(1),
+                        jsonPath("$.rejected").value(1),
+                        jsonPath("$.chunks[0].errors[0]").value("line 2: email is required")
+                ));
+
+        assertEquals(2, studentRepository.count());
+    }
+
+    @Test
+    void importStudents_csv_shouldReturnSummary() throws Exception {
+        mockMvc.perform(post("/api/students/import")
+                .contentType("text/csv")
+                .content("name,email,city\nCsv student,csv@email.com,City\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1));
+
+        assertEquals(2, studentRepository.count());
+    }
+
+    @Test
+    void importStudents_csvWithoutHeader_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/students/import")
+                .contentType("text/csv")
+                .content(""))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("CSV header is missing"));
+    }
+
+    @Test
+    void addCourse_validData_shouldAddCourse() throws Exception{
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(5).inserts(1).updates(2).deletes(0).verify(() -> {
+            mockMvc.perform(post("/api/students/" + testStudent.getId() + "/courses")
+                    .param("courseId", course.getId().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Course was successfully added."));
+            entityManager.flush();
+        });
 
         Student student = studentRepository.findAll().getFirst();
         course = courseRepository.findAll().getFirst();
@@ -105,6 +180,26 @@ class StudentControllerIT {
         assertTrue(course.getStudents().contains(student));
     }
 
+    @Test
+    void addCourses_shouldReturnOutcomePerCourse() throws Exception{
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(6).inserts(1).updates(2).deletes(0).verify(() -> {
+            mockMvc.perform(post("/api/students/" + testStudent.getId() + "/courses/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + course.getId() + ", 100]"))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                            jsonPath("$[0].id").value(course.getId()),
+                            jsonPath("$[0].outcome").value("ENROLLED"),
+                            jsonPath("$[1].outcome").value("NOT_FOUND")
+                    );
+            entityManager.flush();
+        });
+
+        assertTrue(studentRepository.findById(testStudent.getId()).orElseThrow().getCourses().contains(course));
+    }
+
     @Test
     void addCourse_invalidStudentId_shouldReturnNotFound() throws Exception{
         long studentId = 100L;
@@ -126,9 +221,11 @@ class StudentControllerIT {
 
     @Test
     void getAll_shouldReturnStudentList() throws Exception {
-        mockMvc.perform(get("/api/students"))
+        flushAndClear();
+
+        QueryBudget.atMost().selects(3).noWrites().verify(() -> mockMvc.perform(get("/api/students"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(1));
+                .andExpect(jsonPath("$.size()").value(1)));
 
         List<Student> foundStudents = studentRepository.findAll();
 
@@ -149,18 +246,171 @@ class StudentControllerIT {
     }
 
     @Test
-    void getStudent_validId_shouldReturnStudent() throws Exception {
+    void getAll_withLimit_shouldPageByCursor() throws Exception {
+        Student second = studentRepository.save(studentWithEmail("second@email.com"));
+        Student third = studentRepository.save(studentWithEmail("third@email.com"));
+
+        String cursor = mockMvc.perform(get("/api/students").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(testStudent.getId()))
+                .andExpect(jsonPath("$[1].id").value(second.getId()))
+                .andReturn().getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+
+        assertNotNull(cursor);
+
+        mockMvc.perform(get("/api/students").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(third.getId()))
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAll_shouldRunConstantNumberOfQueries() throws Exception {
+        assertEquals(queriesForStudentList(2), queriesForStudentList(20));
+    }
+
+    @Test
+    void getStudent_shouldRunConstantNumberOfQueries() throws Exception {
+        addStudentsWithAssignments(1);
+        Statistics statistics = statistics();
+
         mockMvc.perform(get("/api/students/" + testStudent.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.length()").value(1))
+                .andExpect(jsonPath("$.assignments.length()").value(2));
+
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteCourses_shouldReturnOutcomePerCourse() throws Exception {
+        testStudent.getCourses().add(course);
+        studentRepository.save(testStudent);
+        entityManager.flush();
+
+        QueryBudget.atMost().selects(6).inserts(0).updates(2).deletes(1).verify(() -> {
+            mockMvc.perform(delete("/api/students/" + testStudent.getId() + "/courses/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + course.getId() + ", 100]"))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                            jsonPath("$[0].outcome").value("UNENROLLED"),
+                            jsonPath("$[1].outcome").value("NOT_FOUND")
+                    );
+            entityManager.flush();
+        });
+
+        assertTrue(studentRepository.findById(testStudent.getId()).orElseThrow().getCourses().isEmpty());
+    }
+
+    @Test
+    void getAll_invalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/students").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_json_shouldStreamStudentsWithCourses() throws Exception {
+        testStudent.getCourses().add(course);
+        studentRepository.saveAndFlush(testStudent);
+
+        QueryBudget.atMost().selects(3).noWrites().verify(() -> mockMvc.perform(get("/api/students/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpectAll(
+                        jsonPath("$.length()").value(1),
+                        jsonPath("$[0].id").value(testStudent.getId()),
+                        jsonPath("$[0].address.city").value(testStudent.getAddress().getCity()),
+                        jsonPath("$[0].courses[0]").value(course.getCode()),
+                        jsonPath("$[0].assignments").isEmpty()
+                ));
+    }
+
+    @Test
+    void export_csv_shouldStreamOneLinePerStudent() throws Exception {
+        studentRepository.flush();
+
+        String csv = mockMvc.perform(get("/api/students/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = csv.lines().toList();
+
+        assertEquals(2, lines.size());
+        assertEquals("id,name,email,street,zipCode,city,courses,assignments", lines.getFirst());
+        assertTrue(lines.getLast().startsWith(testStudent.getId() + "," + testStudent.getName()));
+    }
+
+    @Test
+    void export_csv_shouldEscapeSeparatorsInAssignmentTitles() throws Exception {
+        testStudent.getAssignments().add(new Assignment(null, "Read: ch. 1; ch. 2", LocalDate.of(2025, 9, 1), testStudent, null));
+        studentRepository.saveAndFlush(testStudent);
+
+        String csv = mockMvc.perform(get("/api/students/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(csv.lines().toList().getLast().endsWith(",Read\\: ch. 1\\; ch. 2:2025-09-01"));
+    }
+
+    @Test
+    void export_csv_shouldQuoteCarriageReturns() throws Exception {
+        testStudent.setName("Line\rbreak");
+        studentRepository.saveAndFlush(testStudent);
+
+        String csv = mockMvc.perform(get("/api/students/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(csv.contains(",\"Line\rbreak\","));
+    }
+
+    @Test
+    void getStudent_validId_shouldReturnStudent() throws Exception {
+        flushAndClear();
+
+        QueryBudget.atMost().selects(3).noWrites().verify(() -> mockMvc.perform(get("/api/students/" + testStudent.getId()))
                 .andExpect(status().isOk())
                 .andExpectAll(
                         jsonPath("$.id").value(testStudent.getId()),
                         jsonPath("$.name").value(testStudent.getName()),
                         jsonPath("$.email").value(testStudent.getEmail())
-                );
+                ));
 
         assertTrue(studentRepository.findById(testStudent.getId()).isPresent());
     }
 
+    @Test
+    void getByEmail_shouldReturnStudent() throws Exception {
+        Student student = studentRepository.save(studentWithEmail("lookup@email.com"));
+        flushAndClear();
+
+        QueryBudget.atMost().selects(3).noWrites().verify(() -> mockMvc.perform(get("/api/students")
+                        .param("email", "lookup@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + student.getVersion() + "\""))
+                .andExpectAll(
+                        jsonPath("$.id").value(student.getId()),
+                        jsonPath("$.address.city").value("City")
+                ));
+    }
+
+    @Test
+    void getByEmail_unknownEmail_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/students").param("email", "missing@email.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void search_withoutNameOrCity_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/students/search").param("name", ""))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Search needs a name or a city"));
+    }
+
     @Test
     void getStudent_invalidId_shouldReturnNotFound() throws Exception {
         long studentId = 100L;
@@ -169,15 +419,101 @@ class StudentControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getStudent_matchingIfNoneMatch_shouldReturnNotModifiedWithoutLoading() throws Exception {
+        entityManager.flush();
+        String eTag = eTagOf(testStudent.getId());
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/students/" + testStudent.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void updateStudent_staleIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        String name = testStudent.getName();
+
+        mockMvc.perform(put("/api/students/" + testStudent.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"999\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Lost update\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(name, studentRepository.findById(testStudent.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void patchStudent_currentIfMatch_shouldReturnNewETag() throws Exception {
+        String eTag = eTagOf(testStudent.getId());
+
+        String newETag = mockMvc.perform(patch("/api/students/" + testStudent.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Versioned student\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Versioned student"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(nextETag(eTag), newETag);
+        assertEquals(newETag, eTagOf(testStudent.getId()));
+    }
+
+    @Test
+    void patchStudent_ifMatchListingCurrentETag_shouldApplyPatch() throws Exception {
+        String eTag = eTagOf(testStudent.getId());
+
+        mockMvc.perform(patch("/api/students/" + testStudent.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"999\", W/" + eTag + ", " + eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Versioned student\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, nextETag(eTag)));
+    }
+
+    @Test
+    void patchStudent_addressOnly_shouldChangeETagOnce() throws Exception {
+        String eTag = eTagOf(testStudent.getId());
+
+        String newETag = mockMvc.perform(patch("/api/students/" + testStudent.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":{\"city\":\"Other city\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address.city").value("Other city"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(nextETag(eTag), newETag);
+        assertEquals(newETag, eTagOf(testStudent.getId()));
+    }
+
+    @Test
+    void addCourse_shouldChangeETag() throws Exception {
+        String eTag = eTagOf(testStudent.getId());
+
+        mockMvc.perform(post("/api/students/" + testStudent.getId() + "/courses")
+                        .param("courseId", String.valueOf(course.getId())))
+                .andExpect(status().isOk());
+
+        assertNotEquals(eTag, eTagOf(testStudent.getId()));
+    }
+
     @Test
     void getCourses_shouldReturnAllCourses() throws Exception {
         List<Course> courses = courseRepository.findAll();
         testStudent.getCourses().addAll(courses);
         testStudent = studentRepository.save(testStudent);
+        flushAndClear();
 
-        mockMvc.perform(get("/api/students/" + testStudent.getId() + "/courses"))
+        QueryBudget.atMost().selects(2).noWrites().verify(() -> mockMvc.perform(get("/api/students/" + testStudent.getId() + "/courses"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(3));
+                .andExpect(jsonPath("$.length()").value(3)));
 
         assertEquals(courses, testStudent.getCourses().stream().toList());
     }
@@ -190,8 +526,15 @@ class StudentControllerIT {
 
     @Test
     void deleteStudent_existent_shouldDeleteStudent() throws Exception {
-        mockMvc.perform(delete("/api/students/" + testStudent.getId()))
-                .andExpect(status().isNoContent());
+        entityManager.flush();
+
+        // The student's course ids are read to correct their enrollment counts, and on H2 the student
+        // delete reads the address id back as a select from OLD TABLE.
+        QueryBudget.atMost().selects(2).inserts(0).updates(1).deletes(3).verify(() -> {
+            mockMvc.perform(delete("/api/students/" + testStudent.getId()))
+                    .andExpect(status().isNoContent());
+            entityManager.flush();
+        });
 
         assertTrue(studentRepository.findAll().isEmpty());
     }
@@ -214,10 +557,14 @@ class StudentControllerIT {
 
         course.getStudents().add(testStudent);
         course = courseRepository.save(course);
+        entityManager.flush();
 
-        mockMvc.perform(delete("/api/students/" + testStudent.getId() + "/courses")
-                .param("courseId", course.getId().toString()))
-                .andExpect(status().isNoContent());
+        QueryBudget.atMost().selects(5).inserts(0).updates(2).deletes(1).verify(() -> {
+            mockMvc.perform(delete("/api/students/" + testStudent.getId() + "/courses")
+                    .param("courseId", course.getId().toString()))
+                    .andExpect(status().isNoContent());
+            entityManager.flush();
+        });
 
         assertEquals(3, courseRepository.findAll().size());
         assertTrue(studentRepository.findById(testStudent.getId()).get().getCourses().isEmpty());
@@ -235,17 +582,22 @@ class StudentControllerIT {
     void updateStudent_existent_shouldUpdateStudent() throws Exception {
         studentDto.setName("Student 2");
         studentDto.setEmail(null);
-
-        mockMvc.perform(put("/api/students/" + testStudent.getId())
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(studentDto)))
-                .andExpect(status().isOk())
-                .andExpectAll(
-                        jsonPath("$.id").value(testStudent.getId()),
-                        jsonPath("$.name").value(studentDto.getName()),
-                        jsonPath("$.email").doesNotExist()
-                );
+        entityManager.flush();
+
+        // The student is already loaded, and Hibernate's versioned update is the only write.
+        QueryBudget.atMost().selects(0).inserts(0).updates(1).deletes(0).verify(() -> {
+            mockMvc.perform(put("/api/students/" + testStudent.getId())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(studentDto)))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                            jsonPath("$.id").value(testStudent.getId()),
+                            jsonPath("$.name").value(studentDto.getName()),
+                            jsonPath("$.email").doesNotExist()
+                    );
+            entityManager.flush();
+        });
 
         testStudent = studentRepository.findAll().getFirst();
 
@@ -267,16 +619,21 @@ class StudentControllerIT {
     void patchStudent_existent_shouldPerformPartialUpdate() throws Exception{
         studentDto.setName("Student 2");
         studentDto.setEmail(null);
-
-        mockMvc.perform(patch("/api/students/" + testStudent.getId())
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(studentDto)))
-                .andExpect(status().isOk())
-                .andExpectAll(
-                        jsonPath("$.id").value(testStudent.getId()),
-                        jsonPath("$.name").value(studentDto.getName()),
-                        jsonPath("$.email").value(testStudent.getEmail())
-                );
+        entityManager.flush();
+
+        // The student is already loaded, and Hibernate's versioned update is the only write.
+        QueryBudget.atMost().selects(0).inserts(0).updates(1).deletes(0).verify(() -> {
+            mockMvc.perform(patch("/api/students/" + testStudent.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(studentDto)))
+                    .andExpect(status().isOk())
+                    .andExpectAll(
+                            jsonPath("$.id").value(testStudent.getId()),
+                            jsonPath("$.name").value(studentDto.getName()),
+                            jsonPath("$.email").value(testStudent.getEmail())
+                    );
+            entityManager.flush();
+        });
 
         testStudent = studentRepository.findAll().getFirst();
 
@@ -292,4 +649,69 @@ class StudentControllerIT {
                         .content(mapper.writeValueAsString(studentDto)))
                 .andExpect(status().isNotFound());
     }
+
+    private long queriesForStudentList(int studentCount) throws Exception {
+        addStudentsWithAssignments(studentCount - 1);
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/students").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(studentCount))
+                .andExpect(jsonPath("$[0].address.city").value(testStudent.getAddress().getCity()))
+                .andExpect(jsonPath("$[0].courses.length()").value(1))
+                .andExpect(jsonPath("$[0].assignments.length()").value(2));
+
+        long statements = statistics.getPrepareStatementCount();
+        studentRepository.deleteAll(studentRepository.findAll().stream()
+                .filter(student -> !student.getId().equals(testStudent.getId()))
+                .toList());
+        return statements;
+    }
+
+    private void addStudentsWithAssignments(int additionalStudents) {
+        Course managedCourse = courseRepository.findById(course.getId()).orElseThrow();
+        List<Student> students = new ArrayList<>(IntStream.range(0, additionalStudents)
+                .mapToObj(i -> studentWithEmail("student" + additionalStudents + "." + i + "@email.com"))
+                .toList());
+        students.add(studentRepository.findById(testStudent.getId()).orElseThrow());
+
+        for (Student student : students) {
+            if (student.getCourses().isEmpty()) {
+                student.getCourses().add(managedCourse);
+                student.getAssignments().add(new Assignment(null, "First", LocalDate.of(2025, 9, 1), student, null));
+                student.getAssignments().add(new Assignment(null, "Second", LocalDate.of(2025, 9, 2), student, null));
+                studentRepository.save(student);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Student studentWithEmail(String email) {
+        Student student = studentMapper.toEntity(studentDto);
+        student.setEmail(email);
+        return student;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private String eTagOf(Long studentId) throws Exception {
+        return mockMvc.perform(get("/api/students/" + studentId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static String nextETag(String eTag) {
+        return "\"" + (Long.parseLong(eTag.replace("\"", "")) + 1) + "\"";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.spring.JpaRelationships.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GlobalExceptionHandlerTest {
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleDataIntegrityViolation_duplicateEmail_shouldReturnConflict() {
+        assertEquals(HttpStatus.CONFLICT, handler.handleDataIntegrityViolation(violation("23505",
+                "Unique index or primary key violation: \"PUBLIC.UK_STUDENTS_EMAIL_INDEX_B ON PUBLIC.STUDENTS(EMAIL)\""))
+                .getStatusCode());
+    }
+
+    @Test
+    void handleDataIntegrityViolation_duplicateEnrollment_shouldReturnConflict() {
+        assertEquals(HttpStatus.CONFLICT, handler.handleDataIntegrityViolation(violation("23505",
+                "duplicate key value violates unique constraint \"student_course_pkey\""))
+                .getStatusCode());
+    }
+
+    @Test
+    void handleDataIntegrityViolation_otherViolation_shouldRethrow() {
+        DataIntegrityViolationException notNull = violation("23502", "NULL not allowed for column \"CREATED_AT\"");
+        DataIntegrityViolationException foreignKey = violation("23503",
+                "Referential integrity constraint violation: \"FK_STUDENT_COURSE_STUDENT: PUBLIC.STUDENT_COURSE\"");
+        DataIntegrityViolationException otherKey = violation("23505",
+                "Unique index or primary key violation: \"PUBLIC.UK_STUDENTS_ADDRESS_ID_INDEX_B\"");
+
+        assertEquals(notNull, assertThrows(DataIntegrityViolationException.class, () -> handler.handleDataIntegrityViolation(notNull)));
+        assertEquals(foreignKey, assertThrows(DataIntegrityViolationException.class, () -> handler.handleDataIntegrityViolation(foreignKey)));
+        assertEquals(otherKey, assertThrows(DataIntegrityViolationException.class, () -> handler.handleDataIntegrityViolation(otherKey)));
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState, String message) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(message, sqlState));
+    }
+}
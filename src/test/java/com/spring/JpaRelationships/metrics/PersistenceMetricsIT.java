@@ -0,0 +1,183 @@
+package com.spring.JpaRelationships.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JpaRelationships.dto.AssignmentDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Assignment;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.support.QueryCount;
+import com.spring.JpaRelationships.support.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class PersistenceMetricsIT {
+    private static final String STUDENT_URI = "/api/students/{id}";
+    private static final String ASSIGNMENTS_URI = "/api/students/{studentId}/assignments";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private Student testStudent;
+
+    @BeforeEach
+    void setUp() {
+        testStudent = studentMapper.toEntity(StudentDto.builder()
+                .name("Metrics student")
+                .email("metrics@email.com")
+                .build());
+        testStudent.getAssignments().add(new Assignment(null, "First", LocalDate.of(2025, 9, 1), testStudent, null));
+        testStudent.getAssignments().add(new Assignment(null, "Second", LocalDate.of(2025, 9, 2), testStudent, null));
+        testStudent = studentRepository.save(testStudent);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getStudent_shouldRecordStatementsAndLoadsForRequest() throws Exception {
+        Snapshot before = snapshot("GET", STUDENT_URI);
+
+        mockMvc.perform(get("/api/students/" + testStudent.getId()))
+                .andExpect(status().isOk());
+
+        Snapshot after = snapshot("GET", STUDENT_URI);
+        assertEquals(1, after.requests() - before.requests());
+        assertTrue(after.statements() - before.statements() >= 1);
+        assertTrue(after.entitiesLoaded() - before.entitiesLoaded() >= 3);
+        assertTrue(after.collectionsFetched() - before.collectionsFetched() >= 1);
+        assertEquals(0, after.entitiesFlushed() - before.entitiesFlushed());
+    }
+
+    @Test
+    void createAssignments_shouldRecordFlushedEntities() throws Exception {
+        Snapshot before = snapshot("POST", ASSIGNMENTS_URI);
+
+        mockMvc.perform(post("/api/students/" + testStudent.getId() + "/assignments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(
+                                new AssignmentDto("Third", LocalDate.of(2025, 9, 3)),
+                                new AssignmentDto("Fourth", LocalDate.of(2025, 9, 4))))))
+                .andExpect(status().isCreated());
+
+        Snapshot after = snapshot("POST", ASSIGNMENTS_URI);
+        assertEquals(1, after.requests() - before.requests());
+        assertTrue(after.entitiesFlushed() - before.entitiesFlushed() >= 2);
+    }
+
+    @Test
+    void patchStudentAddress_shouldCountJdbcTemplateStatements() throws Exception {
+        patchCity("First city");
+        entityManager.flush();
+        Snapshot before = snapshot("PATCH", STUDENT_URI);
+
+        // Editing the existing address bumps the student version through a JdbcTemplate.
+        QueryCount count = QueryCounter.count(() -> patchCity("Second city"));
+
+        Snapshot after = snapshot("PATCH", STUDENT_URI);
+        assertTrue(count.statements().stream().anyMatch(sql -> sql.contains("version = version + 1")));
+        assertEquals(count.total(), after.statements() - before.statements());
+    }
+
+    @Test
+    void repositoryInvocations_shouldBeTimedPerMethod() throws Exception {
+        mockMvc.perform(get("/api/students/" + testStudent.getId()))
+                .andExpect(status().isOk());
+
+        assertFalse(registry.find("spring.data.repository.invocations")
+                .tag("repository", "StudentRepository")
+                .timers()
+                .isEmpty());
+    }
+
+    @Test
+    void cacheHitRatios_shouldBeRegisteredPerRegion() {
+        assertNotNull(registry.find("hibernate.second.level.cache.hit.ratio").tag("region", "courses").gauge());
+        assertNotNull(registry.find("hibernate.query.cache.hit.ratio").gauge());
+    }
+
+    @Test
+    void metricsEndpoint_shouldExposeRequestMetrics() throws Exception {
+        mockMvc.perform(get("/api/students/" + testStudent.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/hibernate.request.statements")
+                        .param("tag", "uri:" + STUDENT_URI))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("hibernate.request.statements"));
+    }
+
+    private void patchCity(String city) throws Exception {
+        mockMvc.perform(patch("/api/students/" + testStudent.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":{\"city\":\"" + city + "\"}}"))
+                .andExpect(status().isOk());
+    }
+
+    private Snapshot snapshot(String method, String uri) {
+        return new Snapshot(
+                count("hibernate.request.statements", method, uri),
+                total("hibernate.request.statements", method, uri),
+                total("hibernate.request.entities.loaded", method, uri),
+                total("hibernate.request.entities.flushed", method, uri),
+                total("hibernate.request.collections.fetched", method, uri));
+    }
+
+    private long count(String name, String method, String uri) {
+        DistributionSummary summary = summary(name, method, uri);
+        return summary == null ? 0 : summary.count();
+    }
+
+    private double total(String name, String method, String uri) {
+        DistributionSummary summary = summary(name, method, uri);
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return registry.find(name).tag("method", method).tag("uri", uri).summary();
+    }
+
+    private record Snapshot(long requests, double statements, double entitiesLoaded, double entitiesFlushed,
+                            double collectionsFetched) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.spring.JpaRelationships.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * H2 indexes every foreign key on its own, so a missing index on a join column only shows up in
+ * {@link PostgresRepositoryIndexUsageIT}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class H2RepositoryIndexUsageIT extends RepositoryIndexUsageTests {
+    // H2 marks a table read without an index as /* PUBLIC.STUDENTS.tableScan */
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Override
+    protected Set<String> scannedTables(String plan) {
+        return TABLE_SCAN.matcher(plan).results()
+                .map(match -> match.group(1).toLowerCase())
+                .collect(Collectors.toSet());
+    }
+}
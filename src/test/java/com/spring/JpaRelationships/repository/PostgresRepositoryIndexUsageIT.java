@@ -0,0 +1,44 @@
+package com.spring.JpaRelationships.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Needs Docker and is skipped without it. The tables hold a handful of rows, on which PostgreSQL
+ * would rather scan than use any index, so sequential scans are priced out: a plan that still
+ * contains one had no index to use.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresRepositoryIndexUsageIT extends RepositoryIndexUsageTests {
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeEach
+    void disableSequentialScans() {
+        jdbcTemplate.execute("set local enable_seqscan = off");
+    }
+
+    @Override
+    protected Set<String> scannedTables(String plan) {
+        return SEQ_SCAN.matcher(plan).results()
+                .map(match -> match.group(1))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,245 @@
+package com.spring.JpaRelationships.repository;
+
+import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.CourseDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Address;
+import com.spring.JpaRelationships.entity.Assignment;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.CourseMapper;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.service.EnrollmentCountReconciler;
+import com.spring.JpaRelationships.service.EnrollmentCounts;
+import com.spring.JpaRelationships.support.QueryCount;
+import com.spring.JpaRelationships.support.QueryCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every query method of the repositories, plus the association loads and the SQL written past
+ * them, and asks the database for the plan of each statement. A plan that scans a whole table fails
+ * the test, unless the method reads that table in full by design. Subclasses run it on one database
+ * each, since H2 and PostgreSQL pick indexes differently.
+ */
+@Transactional
+abstract class RepositoryIndexUsageTests {
+    private static final List<Class<?>> REPOSITORIES =
+            List.of(StudentRepository.class, CourseRepository.class, AssignmentRepository.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private EnrollmentCounts enrollmentCounts;
+
+    @Autowired
+    private EnrollmentCountReconciler reconciler;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+    private Long spareStudentId;
+    private Long courseId;
+    private Long assignmentId;
+    private Long orphanAddressId;
+
+    /**
+     * @return the tables the plan reads in full
+     */
+    protected abstract Set<String> scannedTables(String plan);
+
+    @BeforeEach
+    void setUp() {
+        Course course = courseRepository.save(courseMapper.toEntity(new CourseDto("IX", "Indexed", 0)));
+        Student student = studentMapper.toEntity(StudentDto.builder()
+                .name("Indexed")
+                .email("indexed@email.com")
+                .address(AddressDto.builder().street("Main").zipCode("1000").city("Sofia").build())
+                .build());
+        student.getCourses().add(course);
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Plan");
+        assignment.setDueDate(LocalDate.of(2025, 5, 1));
+        assignment.setStudent(student);
+        student.getAssignments().add(assignment);
+        studentRepository.save(student);
+        Student spare = studentRepository.save(studentMapper.toEntity(
+                StudentDto.builder().name("Spare").email("spare@email.com").build()));
+
+        Address orphan = new Address();
+        orphan.setCity("Nowhere");
+        entityManager.persist(orphan);
+        entityManager.flush();
+
+        studentId = student.getId();
+        spareStudentId = spare.getId();
+        courseId = course.getId();
+        assignmentId = assignment.getId();
+        orphanAddressId = orphan.getId();
+    }
+
+    @Test
+    void everyRepositoryQuery_shouldBeServedByAnIndex() throws Exception {
+        Map<String, Query> queries = queries();
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Query> entry : queries.entrySet()) {
+            entityManager.flush();
+            entityManager.clear();
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAll();
+
+            QueryCount count = QueryCounter.count(entry.getValue().call()::run);
+            assertFalse(count.statements().isEmpty(), entry.getKey() + " ran no statement");
+
+            for (int i = 0; i < count.statements().size(); i++) {
+                String sql = count.statements().get(i);
+                String plan = explain(sql, count.parameters().get(i));
+                Set<String> unexpected = new TreeSet<>(scannedTables(plan));
+                unexpected.removeAll(entry.getValue().fullReads());
+                if (!unexpected.isEmpty()) {
+                    failures.add(entry.getKey() + " scans " + unexpected + "\n  " + sql + "\n  " + plan);
+                }
+            }
+        }
+
+        assertEquals(List.of(), failures);
+    }
+
+    @Test
+    void queries_shouldCoverEveryRepositoryMethod() {
+        Set<String> covered = queries().keySet();
+
+        List<String> missing = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isSynthetic())
+                        .map(Method::getName)
+                        .map(name -> repository.getSimpleName() + "." + name))
+                .filter(name -> !covered.contains(name))
+                .distinct()
+                .toList();
+
+        assertEquals(List.of(), missing);
+    }
+
+    private Map<String, Query> queries() {
+        Limit limit = Limit.of(10);
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        Map<String, Query> queries = new LinkedHashMap<>();
+        queries.put("StudentRepository.findById", new Query(() -> studentRepository.findById(studentId)));
+        queries.put("StudentRepository.findAll", new Query(() -> studentRepository.findAll(), "students"));
+        queries.put("StudentRepository.findByIdGreaterThanOrderByIdAsc",
+                new Query(() -> studentRepository.findByIdGreaterThanOrderByIdAsc(0L, limit)));
+        queries.put("StudentRepository.findRowsByCourseIdAfter",
+                new Query(() -> studentRepository.findRowsByCourseIdAfter(courseId, 0L, limit)));
+        queries.put("StudentRepository.findByEmail", new Query(() -> studentRepository.findByEmail("indexed@email.com")));
+        queries.put("StudentRepository.findIdByEmail", new Query(() -> studentRepository.findIdByEmail("indexed@email.com")));
+        queries.put("StudentRepository.findExistingEmails",
+                new Query(() -> studentRepository.findExistingEmails(List.of("indexed@email.com", "spare@email.com"))));
+        queries.put("StudentRepository.findRowsByIdIn",
+                new Query(() -> studentRepository.findRowsByIdIn(List.of(studentId, spareStudentId))));
+        queries.put("StudentRepository.findVersionById", new Query(() -> studentRepository.findVersionById(studentId)));
+        queries.put("StudentRepository.findExistingIds",
+                new Query(() -> studentRepository.findExistingIds(List.of(studentId, spareStudentId))));
+        queries.put("StudentRepository.findEnrolledStudentIds",
+                new Query(() -> studentRepository.findEnrolledStudentIds(courseId, List.of(studentId, spareStudentId))));
+        queries.put("StudentRepository.findEnrolledCourseIds",
+                new Query(() -> studentRepository.findEnrolledCourseIds(studentId, List.of(courseId))));
+        queries.put("StudentRepository.insertEnrollment",
+                new Query(() -> studentRepository.insertEnrollment(spareStudentId, courseId)));
+        queries.put("StudentRepository.deleteEnrollment",
+                new Query(() -> studentRepository.deleteEnrollment(spareStudentId, courseId)));
+        queries.put("StudentRepository.deleteAddressById",
+                new Query(() -> studentRepository.deleteAddressById(orphanAddressId)));
+
+        queries.put("CourseRepository.findAll", new Query(() -> courseRepository.findAll(), "courses"));
+        queries.put("CourseRepository.findByCode", new Query(() -> courseRepository.findByCode("IX")));
+        queries.put("CourseRepository.findExistingIds", new Query(() -> courseRepository.findExistingIds(List.of(courseId))));
+
+        queries.put("AssignmentRepository.findAllByStudentId",
+                new Query(() -> assignmentRepository.findAllByStudentId(studentId)));
+        queries.put("AssignmentRepository.findByIdGreaterThanOrderByIdAsc",
+                new Query(() -> assignmentRepository.findByIdGreaterThanOrderByIdAsc(0L, limit)));
+        queries.put("AssignmentRepository.findByStudentIdAndId",
+                new Query(() -> assignmentRepository.findByStudentIdAndId(studentId, assignmentId)));
+        queries.put("AssignmentRepository.findRowsDueBetween",
+                new Query(() -> assignmentRepository.findRowsDueBetween(from, to, from, 0L, limit)));
+        queries.put("AssignmentRepository.findRowsByStudentIdDueBetween",
+                new Query(() -> assignmentRepository.findRowsByStudentIdDueBetween(studentId, from, to, from, 0L, limit)));
+        queries.put("AssignmentRepository.findVersionById",
+                new Query(() -> assignmentRepository.findVersionById(assignmentId)));
+        queries.put("AssignmentRepository.deleteAssignmentById",
+                new Query(() -> assignmentRepository.deleteAssignmentById(assignmentId)));
+        queries.put("AssignmentRepository.deleteByStudentId",
+                new Query(() -> assignmentRepository.deleteByStudentId(studentId)));
+
+        queries.put("Student.courses", new Query(() -> entityManager.find(Student.class, studentId).getCourses().size()));
+        queries.put("Student.assignments",
+                new Query(() -> entityManager.find(Student.class, studentId).getAssignments().size()));
+        queries.put("Course.students", new Query(() -> entityManager.find(Course.class, courseId).getStudents().size()));
+        queries.put("EnrollmentCounts.add", new Query(() -> enrollmentCounts.add(courseId, 1)));
+        queries.put("EnrollmentCounts.removeStudent", new Query(() -> enrollmentCounts.removeStudent(studentId)));
+        queries.put("EnrollmentCountReconciler.reconcile", new Query(reconciler::reconcile));
+        return queries;
+    }
+
+    private String explain(String sql, List<Object> parameters) {
+        return String.join("\n", jdbcTemplate.query("explain " + sql,
+                statement -> {
+                    for (int i = 0; i < parameters.size(); i++) {
+                        statement.setObject(i + 1, parameters.get(i));
+                    }
+                },
+                (row, rowNum) -> row.getString(1)));
+    }
+
+    /**
+     * @param fullReads tables the method reads in full by design, such as the course catalog
+     */
+    private record Query(Runnable call, Set<String> fullReads) {
+        Query(Runnable call, String... fullReads) {
+            this(call, Set.of(fullReads));
+        }
+    }
+}
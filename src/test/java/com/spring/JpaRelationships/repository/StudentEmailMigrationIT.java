@@ -0,0 +1,41 @@
+package com.spring.JpaRelationships.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Migrates a database that predates the unique email index and already holds a duplicate.
+class StudentEmailMigrationIT {
+
+    @Test
+    void migrate_duplicateEmails_shouldKeepTheOldestStudentsEmail() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource, "2").migrate();
+        Arrays.asList(1L, 2L, 3L).forEach(id -> jdbcTemplate.update("""
+                insert into students (id, name, email, created_at, updated_at, version)
+                values (?, ?, ?, current_timestamp, current_timestamp, 0)""",
+                id, "Student " + id, id == 3L ? "other@email.com" : "same@email.com"));
+
+        flyway(dataSource, "latest").migrate();
+
+        assertEquals(Arrays.asList("same@email.com", null, "other@email.com"),
+                jdbcTemplate.queryForList("select email from students order by id", String.class));
+        jdbcTemplate.execute("shutdown");
+    }
+
+    private static Flyway flyway(DriverManagerDataSource dataSource, String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target(target)
+                .load();
+    }
+}
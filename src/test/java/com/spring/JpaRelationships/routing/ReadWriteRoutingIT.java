@@ -0,0 +1,195 @@
+package com.spring.JpaRelationships.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JpaRelationships.config.DataSourceRoutingProperties;
+import com.spring.JpaRelationships.dto.StudentDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against three separate H2 databases: the primary and two replicas. Nothing replicates on
+ * its own; {@link #replicate()} copies the primary into both replicas, so a read that finds a row
+ * written after the last copy must have gone to the primary. The first copy runs when the context
+ * is refreshed, before the course catalog is warmed from a replica.
+ */
+@SpringBootTest(properties = {
+        "datasource.routing.enabled=true",
+        "datasource.routing.read-your-writes-window=1m",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:replica-a-${random.uuid};DB_CLOSE_DELAY=-1",
+        "datasource.routing.replicas[1].url=jdbc:h2:mem:replica-b-${random.uuid};DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadWriteRoutingIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private DataSourceRoutingProperties routingProperties;
+
+    @TestConfiguration
+    static class InitialReplication {
+        @Bean
+        ApplicationListener<ContextRefreshedEvent> initialReplication(DataSourceProperties dataSourceProperties,
+                                                                      DataSourceRoutingProperties routingProperties) {
+            return event -> replicate(dataSourceProperties, routingProperties);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicate();
+    }
+
+    @Test
+    void readOnlyRequest_shouldBeServedByReplica() throws Exception {
+        Long id = createStudent("replica@email.com").id();
+
+        mockMvc.perform(get("/api/students/" + id))
+                .andExpect(status().isNotFound());
+
+        replicate();
+
+        mockMvc.perform(get("/api/students/" + id))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void write_shouldOpenReadYourWritesWindow() throws Exception {
+        Created created = createStudent("window@email.com");
+        double before = count("primary", "read-your-writes");
+
+        assertNotNull(created.cookie());
+        mockMvc.perform(get("/api/students/" + created.id()).cookie(created.cookie()))
+                .andExpect(status().isOk());
+
+        assertEquals(1, count("primary", "read-your-writes") - before);
+    }
+
+    @Test
+    void expiredWindow_shouldReadFromReplica() throws Exception {
+        Long id = createStudent("expired@email.com").id();
+        Cookie expired = new Cookie(ReadYourWritesWindow.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+
+        mockMvc.perform(get("/api/students/" + id).cookie(expired))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void reads_shouldRoundRobinAcrossReplicas() throws Exception {
+        Long id = createStudent("round-robin@email.com").id();
+        replicate();
+        double first = count("replica-0", "read-only");
+        double second = count("replica-1", "read-only");
+
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/students/" + id))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(2, count("replica-0", "read-only") - first);
+        assertEquals(2, count("replica-1", "read-only") - second);
+    }
+
+    @Test
+    void write_shouldBeRoutedToPrimary() throws Exception {
+        double before = count("primary", "write");
+
+        createStudent("write@email.com");
+
+        assertTrue(count("primary", "write") > before);
+        assertNotNull(registry.find("hikaricp.connections").tag("pool", "replica-1").gauge());
+    }
+
+    private Created createStudent(String email) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(StudentDto.builder()
+                                .name("Routed student")
+                                .email(email)
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse();
+
+        Long id = mapper.readTree(response.getContentAsString()).get("id").asLong();
+        return new Created(id, response.getCookie(ReadYourWritesWindow.COOKIE));
+    }
+
+    private double count(String dataSource, String reason) {
+        Counter counter = registry.find(ReadWriteRoutingDataSource.METRIC)
+                .tags("datasource", dataSource, "reason", reason)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void replicate() {
+        replicate(dataSourceProperties, routingProperties);
+    }
+
+    private static void replicate(DataSourceProperties dataSourceProperties, DataSourceRoutingProperties routingProperties) {
+        try {
+            List<String> script = new ArrayList<>();
+            try (Connection primary = DriverManager.getConnection(dataSourceProperties.getUrl(), "sa", "");
+                 Statement statement = primary.createStatement();
+                 ResultSet rows = statement.executeQuery("SCRIPT")) {
+                while (rows.next()) {
+                    script.add(rows.getString(1));
+                }
+            }
+
+            for (DataSourceRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+                try (Connection connection = DriverManager.getConnection(replica.getUrl(), "sa", "");
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("DROP ALL OBJECTS");
+                    for (String sql : script) {
+                        statement.execute(sql);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not copy the primary into the replicas", ex);
+        }
+    }
+
+    private record Created(Long id, Cookie cookie) {
+    }
+}
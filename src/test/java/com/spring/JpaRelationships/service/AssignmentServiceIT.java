@@ -140,6 +140,13 @@ class AssignmentServiceIT {
         assertTrue(repository.findAll().isEmpty());
     }
 
+    @Test
+    void deleteAllByStudentId_studentWithoutAssignments_shouldNotThrow() {
+        service.deleteAllByStudentId(testStudent.getId());
+
+        assertDoesNotThrow(() -> service.deleteAllByStudentId(testStudent.getId()));
+    }
+
     @Test
     void deleteAllByStudentId_nonExistingId_shouldThrowException() {
         assertThrows(ResourceNotFoundException.class, () -> service.deleteAllByStudentId(3L));
@@ -165,7 +172,7 @@ class AssignmentServiceIT {
     @Test
     void patchAssignment_existing_shouldPerformPartialUpdate() {
         String title = "Updated assignment";
-        Assignment updatedAssignment = service.patchAssignment(1L, new AssignmentDto(title, null));
+        Assignment updatedAssignment = service.patchAssignment(testAssignmentList.getFirst().getId(), new AssignmentDto(title, null));
 
         testAssignmentList = repository.findAll();
 
@@ -0,0 +1,116 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.CourseDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.exception.ResourceNotFoundException;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CourseCatalogIT {
+    @Autowired
+    private CourseService service;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentService studentService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findCatalog_steadyState_shouldNotQueryDatabase() {
+        CourseCatalog catalog = service.findCatalog();
+
+        statistics.clear();
+        CourseCatalog again = service.findCatalog();
+        CourseDto course = service.findDtoByCode("JV");
+
+        assertSame(catalog, again);
+        assertSame(catalog.json(), again.json());
+        assertEquals("Java", course.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findDtoByCode_unknownCode_shouldThrowException() {
+        assertThrows(ResourceNotFoundException.class, () -> service.findDtoByCode("UNKNOWN"));
+    }
+
+    @Test
+    void courseWrites_shouldRefreshCatalogAfterCommit() throws InterruptedException {
+        Course course = new Course();
+        course.setCode("PY");
+        course.setName("Python");
+        course = courseRepository.save(course);
+
+        awaitCatalog(catalog -> catalog.byCode().containsKey("PY"));
+        CourseCatalog catalog = service.findCatalog();
+        assertEquals("Python", catalog.byId().get(course.getId()).getName());
+        assertTrue(new String(catalog.json()).contains("\"Python\""));
+
+        courseRepository.delete(course);
+        awaitCatalog(current -> !current.byCode().containsKey("PY"));
+    }
+
+    @Test
+    void enrollments_shouldRefreshCountInCatalogAfterCommit() throws InterruptedException {
+        Student student = studentRepository.save(studentMapper.toEntity(StudentDto.builder()
+                .name("Catalog student")
+                .email("catalog@email.com")
+                .build()));
+        Long courseId = courseRepository.findByCode("SB").orElseThrow().getId();
+        long before = service.findCatalog().byId().get(courseId).getEnrollmentCount();
+
+        enrollmentService.enrollStudentToCourse(student.getId(), courseId);
+        awaitCatalog(catalog -> catalog.byId().get(courseId).getEnrollmentCount() == before + 1);
+        assertTrue(new String(service.findCatalog().json()).contains("\"enrollmentCount\":" + (before + 1)));
+
+        studentService.deleteById(student.getId());
+        awaitCatalog(catalog -> catalog.byId().get(courseId).getEnrollmentCount() == before);
+    }
+
+    private void awaitCatalog(Predicate<CourseCatalog> condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.test(service.findCatalog()); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(condition.test(service.findCatalog()));
+    }
+}
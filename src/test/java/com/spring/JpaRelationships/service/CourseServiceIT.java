@@ -1,11 +1,13 @@
 package com.spring.JpaRelationships.service;
 
+import com.spring.JpaRelationships.dto.AddressDto;
 import com.spring.JpaRelationships.dto.CourseDto;
 import com.spring.JpaRelationships.dto.StudentDto;
 import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.exception.ResourceNotFoundException;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
 import com.spring.JpaRelationships.repository.CourseRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
 import jakarta.transaction.Transactional;
@@ -101,6 +103,27 @@ class CourseServiceIT {
         assertEquals(testStudent.getName(), foundStudents.getFirst().getName());
     }
 
+    @Test
+    void findStudentsPage_shouldPageProjectedStudents() {
+        Course course = testCourses.getFirst();
+        Student secondStudent = studentMapper.toEntity(StudentDto.builder()
+                .name("Second student")
+                .email("second@email.com")
+                .address(AddressDto.builder().city("Second city").build())
+                .build());
+        secondStudent.getCourses().add(course);
+        studentRepository.save(secondStudent);
+
+        CursorPage<StudentDto> firstPage = service.findStudentsPage(course.getId(), null, 1);
+        CursorPage<StudentDto> secondPage = service.findStudentsPage(course.getId(), firstPage.getNextCursor(), 1);
+
+        assertEquals(testStudent.getName(), firstPage.getContent().getFirst().getName());
+        assertNull(firstPage.getContent().getFirst().getAddress());
+        assertTrue(firstPage.hasNext());
+        assertEquals("Second city", secondPage.getContent().getFirst().getAddress().getCity());
+        assertFalse(secondPage.hasNext());
+    }
+
     @Test
     void findAllStudents_shouldThrowException() {
         assertThrows(ResourceNotFoundException.class, () -> service.findAllStudents(any(Long.class)));
@@ -0,0 +1,72 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.CourseDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.CourseMapper;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "courses.enrollment-count.reconcile-batch-size=2")
+@ActiveProfiles("test")
+@Transactional
+class EnrollmentCountReconcilerIT {
+    @Autowired
+    private EnrollmentCountReconciler reconciler;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcile_shouldRepairDriftAcrossBatches() {
+        List<Course> courses = courseRepository.saveAll(IntStream.range(0, 5)
+                .mapToObj(i -> courseMapper.toEntity(new CourseDto("RC" + i, "Reconciled " + i, 0)))
+                .toList());
+
+        // Enrollments saved through the collection bypass EnrollmentCounts.
+        Student student = studentMapper.toEntity(StudentDto.builder().name("Drift").email("drift@email.com").build());
+        student.getCourses().addAll(courses.subList(0, 3));
+        studentRepository.save(student);
+        entityManager.flush();
+        jdbcTemplate.update("update courses set enrollment_count = 7 where id = ?", courses.get(4).getId());
+
+        assertEquals(4, reconciler.reconcile());
+        assertEquals(0, reconciler.reconcile());
+
+        entityManager.clear();
+        for (Course course : courseRepository.findAllById(courses.stream().map(Course::getId).toList())) {
+            long enrolled = jdbcTemplate.queryForObject(
+                    "select count(*) from student_course where course_id = ?", Long.class, course.getId());
+            assertEquals(enrolled, course.getEnrollmentCount());
+        }
+    }
+}
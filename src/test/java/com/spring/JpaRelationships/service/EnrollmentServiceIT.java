@@ -1,5 +1,7 @@
 package com.spring.JpaRelationships.service;
 
+import com.spring.JpaRelationships.dto.EnrollmentResultDto;
+import com.spring.JpaRelationships.dto.EnrollmentResultDto.Outcome;
 import com.spring.JpaRelationships.dto.StudentDto;
 import com.spring.JpaRelationships.entity.Course;
 import com.spring.JpaRelationships.entity.Student;
@@ -8,8 +10,11 @@ import com.spring.JpaRelationships.exception.UniqueFieldException;
 import com.spring.JpaRelationships.mapper.StudentMapper;
 import com.spring.JpaRelationships.repository.CourseRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +22,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,9 +33,11 @@ import static org.mockito.ArgumentMatchers.any;
 @RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
 class EnrollmentServiceIT {
     private final EnrollmentService service;
+    private final StudentService studentService;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final StudentMapper studentMapper;
+    private final EntityManager entityManager;
 
     private Student testStudent;
     private Course testCourse;
@@ -54,6 +62,24 @@ class EnrollmentServiceIT {
         assertTrue(testCourse.getStudents().contains(testStudent));
     }
 
+    @Test
+    void enrollStudentToCourse_shouldWriteJoinRowWithoutLoadingCollections() {
+        addStudentToCourses();
+        service.unenrollStudentFromCourse(testStudent.getId(), testCourse.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        service.enrollStudentToCourse(testStudent.getId(), testCourse.getId());
+        service.unenrollStudentFromCourse(testStudent.getId(), testCourse.getId());
+
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
     @Test
     void enrollStudentToCourse_invalidStudentId_shouldThrowException() {
         assertThrows(ResourceNotFoundException.class, () -> service.enrollStudentToCourse(any(Long.class), testCourse.getId()));
@@ -87,6 +113,90 @@ class EnrollmentServiceIT {
         });
     }
 
+    @Test
+    void enrollStudents_shouldReportOutcomePerId() {
+        Student enrolledStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder().name("Enrolled").build()));
+        enrolledStudent.getCourses().add(testCourse);
+
+        List<EnrollmentResultDto> results = service.enrollStudents(testCourse.getId(),
+                List.of(testStudent.getId(), enrolledStudent.getId(), 999L, testStudent.getId()));
+
+        assertEquals(List.of(
+                new EnrollmentResultDto(testStudent.getId(), Outcome.ENROLLED),
+                new EnrollmentResultDto(enrolledStudent.getId(), Outcome.ALREADY_ENROLLED),
+                new EnrollmentResultDto(999L, Outcome.NOT_FOUND)), results);
+        assertTrue(studentRepository.findById(testStudent.getId()).orElseThrow().getCourses().contains(testCourse));
+    }
+
+    @Test
+    void enrollStudents_invalidCourseId_shouldThrowException() {
+        assertThrows(ResourceNotFoundException.class, () -> service.enrollStudents(999L, List.of(testStudent.getId())));
+    }
+
+    @Test
+    void unenrollFromCourses_shouldReportOutcomePerId() {
+        addStudentToCourses();
+        List<Course> courses = courseRepository.findAll();
+
+        List<EnrollmentResultDto> results = service.unenrollFromCourses(testStudent.getId(),
+                List.of(courses.get(0).getId(), courses.get(1).getId(), 999L));
+
+        assertEquals(List.of(Outcome.UNENROLLED, Outcome.UNENROLLED, Outcome.NOT_FOUND),
+                results.stream().map(EnrollmentResultDto::getOutcome).toList());
+        assertEquals(Set.of(courses.get(2)), testStudent.getCourses());
+        assertTrue(courses.get(0).getStudents().isEmpty());
+    }
+
+    @Test
+    void enrollInCourses_shouldSkipExistingEnrollments() {
+        List<Course> courses = courseRepository.findAll();
+        service.enrollStudentToCourse(testStudent.getId(), courses.getFirst().getId());
+
+        List<EnrollmentResultDto> results = service.enrollInCourses(testStudent.getId(),
+                courses.stream().map(Course::getId).toList());
+
+        assertEquals(Outcome.ALREADY_ENROLLED, results.getFirst().getOutcome());
+        assertEquals(3, testStudent.getCourses().size());
+    }
+
+    @Test
+    void moveStudents_shouldMoveEnrolledStudents() {
+        addStudentToCourses();
+        Course target = courseRepository.findAll().getLast();
+        Student otherStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder().name("Other").build()));
+
+        List<EnrollmentResultDto> results = service.moveStudents(testCourse.getId(), target.getId(),
+                List.of(testStudent.getId(), otherStudent.getId()));
+
+        assertEquals(List.of(
+                new EnrollmentResultDto(testStudent.getId(), Outcome.MOVED),
+                new EnrollmentResultDto(otherStudent.getId(), Outcome.NOT_ENROLLED)), results);
+        assertFalse(testStudent.getCourses().contains(testCourse));
+        assertTrue(testStudent.getCourses().contains(target));
+    }
+
+    @Test
+    void enrollments_shouldKeepEnrollmentCountsInStep() {
+        Course target = courseRepository.findAll().getLast();
+        Student otherStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder().name("Other").build()));
+        long sourceCount = testCourse.getEnrollmentCount();
+        long targetCount = target.getEnrollmentCount();
+
+        service.enrollStudentToCourse(testStudent.getId(), testCourse.getId());
+        service.enrollStudents(testCourse.getId(), List.of(testStudent.getId(), otherStudent.getId()));
+        assertEquals(sourceCount + 2, testCourse.getEnrollmentCount());
+
+        service.moveStudents(testCourse.getId(), target.getId(), List.of(otherStudent.getId()));
+        assertEquals(sourceCount + 1, testCourse.getEnrollmentCount());
+        assertEquals(targetCount + 1, target.getEnrollmentCount());
+
+        service.unenrollFromCourses(testStudent.getId(), List.of(testCourse.getId()));
+        assertEquals(sourceCount, testCourse.getEnrollmentCount());
+
+        studentService.deleteById(otherStudent.getId());
+        assertEquals(targetCount, courseRepository.findById(target.getId()).orElseThrow().getEnrollmentCount());
+    }
+
     @Test
     void unenrollStudentFromCourse_validData_shouldPerformDeletion() {
         addStudentToCourses();
@@ -0,0 +1,145 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.CacheRegionStatsDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Course;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.repository.CourseRepository;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheIT {
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Student testStudent;
+    private List<Course> courses;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        courses = courseRepository.findAll();
+        testStudent = studentRepository.save(studentMapper.toEntity(StudentDto.builder()
+                .name("Cached student")
+                .build()));
+        enrollmentService.enrollStudentToCourse(testStudent.getId(), courses.getFirst().getId());
+        // The enrollment rebuilds the course catalog in the background, which would show up in the statistics.
+        courseService.awaitCatalogRefresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteById(testStudent.getId());
+    }
+
+    @Test
+    void findCourse_secondRead_shouldNotQueryDatabase() {
+        Long courseId = courses.getFirst().getId();
+        courseRepository.findById(courseId);
+
+        statistics.clear();
+        Course course = courseRepository.findById(courseId).orElseThrow();
+
+        assertEquals(courses.getFirst().getCode(), course.getCode());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findAllCourses_secondRead_shouldNotQueryDatabase() {
+        courseRepository.findAll();
+
+        statistics.clear();
+        assertEquals(courses.size(), courseRepository.findAll().size());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void studentCourses_secondRead_shouldBeServedFromCache() {
+        assertEquals(Set.of(courses.getFirst().getCode()), courseCodes());
+
+        statistics.clear();
+        assertEquals(Set.of(courses.getFirst().getCode()), courseCodes());
+
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void enrollmentChanges_shouldInvalidateCachedCollections() {
+        courseCodes();
+
+        enrollmentService.enrollStudents(courses.getLast().getId(), List.of(testStudent.getId()));
+        assertEquals(Set.of(courses.getFirst().getCode(), courses.getLast().getCode()), courseCodes());
+
+        enrollmentService.unenrollStudentFromCourse(testStudent.getId(), courses.getFirst().getId());
+        assertEquals(Set.of(courses.getLast().getCode()), courseCodes());
+    }
+
+    @Test
+    void findAllStatistics_shouldReportConfiguredRegions() {
+        courseRepository.findById(courses.getFirst().getId());
+        courseRepository.findById(courses.getFirst().getId());
+
+        Set<String> regions = cacheStatisticsService.findAll().stream()
+                .map(CacheRegionStatsDto::getRegion)
+                .collect(Collectors.toSet());
+        CacheRegionStatsDto courseStats = cacheStatisticsService.findAll().stream()
+                .filter(stats -> stats.getRegion().equals("courses"))
+                .findFirst()
+                .orElseThrow();
+
+        assertTrue(regions.containsAll(Set.of("courses", "student-courses", "course-students")));
+        assertTrue(courseStats.getHits() > 0);
+    }
+
+    private Set<String> courseCodes() {
+        return transactionTemplate.execute(status -> studentRepository.findById(testStudent.getId()).orElseThrow()
+                .getCourses().stream()
+                .map(Course::getCode)
+                .collect(Collectors.toSet()));
+    }
+}
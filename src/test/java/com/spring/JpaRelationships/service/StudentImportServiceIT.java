@@ -0,0 +1,160 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.ImportSummaryDto;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.repository.StudentRepository;
+import com.spring.JpaRelationships.support.QueryBudget;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "students.import.chunk-size=2")
+@ActiveProfiles("test")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @__(@Autowired))
+class StudentImportServiceIT {
+    private final StudentImportService service;
+    private final StudentRepository studentRepository;
+    private final StudentEmails studentEmails;
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importStudents_ndjson_shouldPersistInChunks() throws IOException {
+        String content = """
+                {"name":"Student 1","email":"s1@email.com","address":{"street":"Street 1","zipCode":"1111","city":"City"}}
+                {"name":"Student 2","email":"s2@email.com"}
+                {"name":"Student 3","email":"s3@email.com"}
+                """;
+
+        ImportSummaryDto summary = service.importStudents(body(content), StudentImportService.Format.NDJSON);
+
+        assertEquals(3, summary.getAccepted());
+        assertEquals(0, summary.getRejected());
+        assertEquals(2, summary.getChunks().size());
+
+        List<Student> students = studentRepository.findAll();
+        assertEquals(3, students.size());
+        assertEquals("Street 1", students.stream()
+                .filter(student -> student.getName().equals("Student 1"))
+                .findFirst().orElseThrow()
+                .getAddress().getStreet());
+    }
+
+    @Test
+    void importStudents_ndjson_shouldRejectInvalidRows() throws IOException {
+        String content = """
+                {"name":"Student 1","email":"s1@email.com"}
+                {"name":"Student 2",
+                {"email":"s3@email.com"}
+                """;
+
+        ImportSummaryDto summary = service.importStudents(body(content), StudentImportService.Format.NDJSON);
+
+        assertEquals(1, summary.getAccepted());
+        assertEquals(2, summary.getRejected());
+        assertTrue(summary.getChunks().getFirst().getErrors().getFirst().startsWith("line 2"));
+        assertEquals("line 3: name is required", summary.getChunks().get(1).getErrors().getFirst());
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    void importStudents_csv_shouldMapNestedAddress() throws IOException {
+        String content = """
+                name,email,street,zipCode,city
+                "Doe, John",john@email.com,Main street,1234,City
+                Jane,jane@email.com,,,
+                """;
+
+        ImportSummaryDto summary = service.importStudents(body(content), StudentImportService.Format.CSV);
+
+        assertEquals(2, summary.getAccepted());
+
+        Student john = studentRepository.findAll().stream()
+                .filter(student -> student.getEmail().equals("john@email.com"))
+                .findFirst().orElseThrow();
+        Student jane = studentRepository.findAll().stream()
+                .filter(student -> student.getEmail().equals("jane@email.com"))
+                .findFirst().orElseThrow();
+
+        assertEquals("Doe, John", john.getName());
+        assertEquals("City", john.getAddress().getCity());
+        assertNull(jane.getAddress());
+    }
+
+    @Test
+    void importStudents_csv_shouldKeepLineBreaksInQuotedFields() throws IOException {
+        String content = "name,email,street,zipCode,city\r\n"
+                + "\"Doe\r\nJohn\",john@email.com,\"Main street\n2nd floor\",1234,City\r\n"
+                + "\"Jane,jane@email.com\r\n";
+
+        ImportSummaryDto summary = service.importStudents(body(content), StudentImportService.Format.CSV);
+
+        assertEquals(1, summary.getAccepted());
+        assertEquals(List.of("line 5: unterminated quoted field"), summary.getChunks().getFirst().getErrors());
+
+        Student john = studentRepository.findAll().getFirst();
+        assertEquals("Doe\r\nJohn", john.getName());
+        assertEquals("Main street\n2nd floor", john.getAddress().getStreet());
+    }
+
+    @Test
+    void importStudents_shouldRejectDuplicateEmails() throws IOException {
+        service.importStudents(body("""
+                {"name":"Existing","email":"existing@email.com"}
+                """), StudentImportService.Format.NDJSON);
+
+        String content = """
+                {"name":"Duplicate","email":"existing@email.com"}
+                {"name":"Student 1","email":"s1@email.com"}
+                {"name":"Repeated","email":"s1@email.com"}
+                {"name":"Student 2","email":"s2@email.com"}
+                {"name":"Student 3","email":"s3@email.com"}
+                {"name":"Repeated","email":"s3@email.com"}
+                """;
+
+        ImportSummaryDto summary = service.importStudents(body(content), StudentImportService.Format.NDJSON);
+
+        assertEquals(3, summary.getAccepted());
+        assertEquals(3, summary.getRejected());
+        assertEquals(List.of("line 1: email already exists"), summary.getChunks().get(0).getErrors());
+        assertEquals(List.of("line 3: email already exists"), summary.getChunks().get(1).getErrors());
+        assertEquals(List.of("line 6: email already exists"), summary.getChunks().get(2).getErrors());
+        assertEquals(4, studentRepository.count());
+    }
+
+    @Test
+    void importStudents_newEmails_shouldSkipDuplicateLookup() throws Exception {
+        studentEmails.rebuild();
+        String content = """
+                {"name":"Student 1","email":"first.new@email.com"}
+                {"name":"Student 2","email":"second.new@email.com"}
+                """;
+
+        QueryBudget.atMost().selects(0).inserts(2).verify(() -> {
+            ImportSummaryDto summary = service.importStudents(body(content), StudentImportService.Format.NDJSON);
+            assertEquals(2, summary.getAccepted());
+        });
+    }
+
+    @Test
+    void importStudents_emptyBody_shouldReturnEmptySummary() throws IOException {
+        ImportSummaryDto summary = service.importStudents(body(""), StudentImportService.Format.NDJSON);
+
+        assertEquals(0, summary.getAccepted());
+        assertTrue(summary.getChunks().isEmpty());
+    }
+}
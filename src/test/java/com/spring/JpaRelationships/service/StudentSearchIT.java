@@ -0,0 +1,128 @@
+package com.spring.JpaRelationships.service;
+
+import com.spring.JpaRelationships.dto.AddressDto;
+import com.spring.JpaRelationships.dto.StudentDto;
+import com.spring.JpaRelationships.entity.Student;
+import com.spring.JpaRelationships.exception.InvalidSearchException;
+import com.spring.JpaRelationships.pagination.CursorPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the index only takes changes that commit. Few pending changes are allowed, so
+// most of them are read back from compacted snapshots.
+@SpringBootTest(properties = "students.search.max-pending-changes=2")
+@ActiveProfiles("test")
+class StudentSearchIT {
+    @Autowired
+    private StudentService service;
+
+    @Autowired
+    private StudentSearchIndex searchIndex;
+
+    private final List<Long> created = new ArrayList<>();
+    private Long zofia;
+    private Long zoltan;
+
+    @BeforeEach
+    void setUp() {
+        zofia = create("Žofia Quennell", "Quarry Town");
+        zoltan = create("Zoltan Quist", "Old Quay");
+        create("Anna Quennelly", "Quarry Town");
+        create("Maria Ivanova", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(service::deleteById);
+    }
+
+    @Test
+    void search_shouldMatchEveryWordAsPrefix() {
+        assertEquals(List.of("Žofia Quennell", "Zoltan Quist"), names("zo", null));
+        assertEquals(List.of("Žofia Quennell", "Anna Quennelly"), names("QUENN", null));
+        assertEquals(List.of("Žofia Quennell"), names("quen  zo", null));
+        assertEquals(List.of(), names("zoq", null));
+        assertEquals(List.of(), names("--", null));
+    }
+
+    @Test
+    void search_shouldMatchCity() {
+        assertEquals(List.of("Žofia Quennell", "Anna Quennelly"), names(null, "quarry  town"));
+        assertEquals(List.of("Anna Quennelly"), names("anna", "Quarry Town"));
+        assertEquals(List.of(), names("maria", "Quarry Town"));
+        assertEquals(List.of(), names(null, "Quarry"));
+    }
+
+    @Test
+    void search_shouldFollowUpdatesPatchesAndDeletes() {
+        service.updateById(zoltan, StudentDto.builder()
+                .name("Zoran Quist")
+                .email("zoran@email.com")
+                .address(AddressDto.builder().city("Quarry Town").build())
+                .build());
+        service.patchById(zofia, StudentDto.builder().address(AddressDto.builder().city("Old Quay").build()).build());
+
+        assertEquals(List.of("Zoran Quist", "Anna Quennelly"), names(null, "Quarry Town"));
+        assertEquals(List.of("Žofia Quennell"), names("zo", "Old Quay"));
+        assertEquals(List.of(), names("zoltan", null));
+
+        service.deleteById(zofia);
+        created.remove(zofia);
+
+        assertEquals(List.of("Zoran Quist"), names("zo", null));
+    }
+
+    @Test
+    void search_shouldPageByCursor() {
+        CursorPage<StudentDto> first = service.search("q", null, null, 2);
+        CursorPage<StudentDto> second = service.search("q", null, first.getNextCursor(), 2);
+
+        assertEquals(List.of("Žofia Quennell", "Zoltan Quist"), first.getContent().stream().map(StudentDto::getName).toList());
+        assertTrue(first.hasNext());
+        assertEquals(List.of("Anna Quennelly"), second.getContent().stream().map(StudentDto::getName).toList());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void search_shouldAnswerTheSameAfterCompactionAndRebuild() {
+        service.patchById(zoltan, StudentDto.builder().name("Zoran Quist").build());
+        List<String> before = names("zo", null);
+
+        searchIndex.compact();
+        assertEquals(before, names("zo", null));
+
+        searchIndex.rebuild();
+        assertEquals(before, names("zo", null));
+        assertEquals(List.of("Žofia Quennell", "Zoran Quist"), before);
+    }
+
+    @Test
+    void search_withoutNameOrCity_shouldThrowException() {
+        assertThrows(InvalidSearchException.class, () -> service.search(" ", null, null, 10));
+    }
+
+    private Long create(String name, String city) {
+        Student student = service.save(StudentDto.builder()
+                .name(name)
+                .email(name.toLowerCase().replace(' ', '.') + "@email.com")
+                .address(city == null ? null : AddressDto.builder().city(city).build())
+                .build());
+        created.add(student.getId());
+        return student.getId();
+    }
+
+    private List<String> names(String name, String city) {
+        return service.search(name, city, null, 100).getContent().stream()
+                .map(StudentDto::getName)
+                .toList();
+    }
+}
@@ -5,7 +5,9 @@ import com.spring.JpaRelationships.dto.CourseDto;
 import com.spring.JpaRelationships.dto.StudentDto;
 import com.spring.JpaRelationships.entity.Student;
 import com.spring.JpaRelationships.exception.ResourceNotFoundException;
+import com.spring.JpaRelationships.exception.UniqueFieldException;
 import com.spring.JpaRelationships.mapper.StudentMapper;
+import com.spring.JpaRelationships.pagination.CursorPage;
 import com.spring.JpaRelationships.repository.CourseRepository;
 import com.spring.JpaRelationships.repository.StudentRepository;
 import jakarta.transaction.Transactional;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -38,6 +41,9 @@ public class StudentServiceIT {
     @Autowired
     private StudentMapper mapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Student testStudent;
     private static StudentDto testDto;
 
@@ -45,7 +51,7 @@ public class StudentServiceIT {
     static void beforeAll() {
         testDto = StudentDto.builder()
                 .name(null)
-                .email("student@email.com")
+                .email("other@email.com")
                 .address(null)
                 .build();
     }
@@ -80,7 +86,7 @@ public class StudentServiceIT {
 
         StudentDto studentDto = StudentDto.builder()
                 .name("Student name")
-                .email("student@email.com")
+                .email("new@email.com")
                 .address(addressDto)
                 .build();
 
@@ -90,6 +96,32 @@ public class StudentServiceIT {
         assertEquals(studentDto.getName(), savedStudent.getName());
     }
 
+    @Test
+    void testSave_shouldRejectDuplicateEmail() {
+        StudentDto studentDto = StudentDto.builder()
+                .name("Duplicate")
+                .email(testStudent.getEmail())
+                .build();
+
+        UniqueFieldException ex = assertThrows(UniqueFieldException.class, () -> service.save(studentDto));
+        assertEquals("Student already exists with email student@email.com", ex.getMessage());
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    void testFindByEmail_shouldReturnStudent() {
+        Student foundStudent = service.findByEmail("student@email.com");
+
+        assertEquals(testStudent, foundStudent);
+        assertEquals("Test city", foundStudent.getAddress().getCity());
+    }
+
+    @Test
+    void testFindByEmail_shouldThrowException() {
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> service.findByEmail("missing@email.com"));
+        assertEquals("Student not found with email missing@email.com", ex.getMessage());
+    }
+
     @Test
     void testFindAll_shouldReturnAllStudents() {
         List<Student> foundStudents = service.findAll();
@@ -108,6 +140,19 @@ public class StudentServiceIT {
         assertTrue(foundStudents.isEmpty());
     }
 
+    @Test
+    void testFindPage_shouldSeekAfterCursor() {
+        Student secondStudent = studentRepository.save(mapper.toEntity(testDto));
+
+        CursorPage<Student> firstPage = service.findPage(null, 1);
+        CursorPage<Student> secondPage = service.findPage(firstPage.getNextCursor(), 1);
+
+        assertEquals(List.of(testStudent), firstPage.getContent());
+        assertTrue(firstPage.hasNext());
+        assertEquals(List.of(secondStudent), secondPage.getContent());
+        assertFalse(secondPage.hasNext());
+    }
+
     @Test
     void testFindById_shouldReturnStudent() {
         Student foundStudent = service.findById(testStudent.getId());
@@ -146,9 +191,12 @@ public class StudentServiceIT {
 
     @Test
     void testDeleteById_shouldDeleteStudent() {
+        Long addressId = testStudent.getAddress().getId();
+
         service.deleteById(testStudent.getId());
 
         assertTrue(studentRepository.findAll().isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from addresses where id = ?", Integer.class, addressId));
     }
 
     @Test
@@ -168,6 +216,26 @@ public class StudentServiceIT {
         assertNull(updatedStudent.get().getAddress());
     }
 
+    @Test
+    void testUpdateById_shouldKeepOwnEmail() {
+        StudentDto studentDto = StudentDto.builder()
+                .name("Renamed")
+                .email(testStudent.getEmail())
+                .build();
+
+        Student updatedStudent = service.updateById(testStudent.getId(), studentDto);
+
+        assertEquals("Renamed", updatedStudent.getName());
+    }
+
+    @Test
+    void testPatchById_shouldRejectEmailOfAnotherStudent() {
+        studentRepository.save(mapper.toEntity(testDto));
+
+        assertThrows(UniqueFieldException.class, () -> service.patchById(testStudent.getId(),
+                StudentDto.builder().email(testDto.getEmail()).build()));
+    }
+
     @Test
     void testUpdateById_shouldThrowException() {
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> service.updateById(100L, any(StudentDto.class)));
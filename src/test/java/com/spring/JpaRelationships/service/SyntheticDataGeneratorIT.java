@@ -0,0 +1,125 @@
+package com.spring.JpaRelationships.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "data-generator.students-per-scale=1000",
+        "data-generator.courses=40",
+        "data-generator.chunk-size=300",
+        "data-generator.batch-size=100",
+        "data-generator.threads=2"
+})
+@ActiveProfiles("test")
+class SyntheticDataGeneratorIT {
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long seededCourses;
+
+    @BeforeEach
+    void setUp() {
+        seededCourses = count("select coalesce(max(id), 0) from courses");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from assignments");
+        jdbcTemplate.update("delete from student_course");
+        jdbcTemplate.update("delete from students");
+        jdbcTemplate.update("delete from addresses");
+        jdbcTemplate.update("delete from courses where id > ?", seededCourses);
+    }
+
+    @Test
+    void generate_shouldLoadConsistentDataset() {
+        SyntheticDataGenerator.Summary summary = generator.generate(42, 2);
+
+        assertEquals(2000, summary.students());
+        assertEquals(40, summary.courses());
+        assertEquals(2000, count("select count(*) from students s join addresses a on a.id = s.address_id"));
+        assertEquals(summary.enrollments(), count("select count(*) from student_course"));
+        assertEquals(summary.assignments(), count("select count(*) from assignments"));
+        assertEquals(0, count("select count(*) from students s where not exists "
+                + "(select 1 from student_course sc where sc.student_id = s.id)"));
+        assertEquals(0, count("""
+                select count(*) from courses c
+                where c.enrollment_count <> (select count(*) from student_course sc where sc.course_id = c.id)"""));
+        assertEquals(2000, count("select count(distinct email) from students"));
+
+        LocalDate firstDue = jdbcTemplate.queryForObject("select min(due_date) from assignments", LocalDate.class);
+        LocalDate lastDue = jdbcTemplate.queryForObject("select max(due_date) from assignments", LocalDate.class);
+        assertTrue(firstDue.isAfter(LocalDate.of(2021, 9, 1)));
+        assertTrue(lastDue.isBefore(LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    void generate_shouldBeDeterministicForSeedAndScale() throws Exception {
+        generator.generate(7, 1);
+        String first = digest();
+        tearDown();
+
+        generator.generate(7, 1);
+        String second = digest();
+        tearDown();
+
+        generator.generate(8, 1);
+        assertEquals(first, second);
+        assertNotEquals(first, digest());
+    }
+
+    @Test
+    void generate_shouldSkewCoursePopularity() {
+        generator.generate(42, 1);
+
+        List<Long> counts = jdbcTemplate.queryForList(
+                "select enrollment_count from courses where id > ? order by enrollment_count desc", Long.class, seededCourses);
+
+        assertTrue(counts.getFirst() > 10 * counts.get(counts.size() / 2),
+                "Most popular course has " + counts.getFirst() + ", median " + counts.get(counts.size() / 2));
+    }
+
+    @Test
+    void generate_shouldRefuseDatabaseWithStudents() {
+        generator.generate(42, 0.1);
+
+        assertThrows(IllegalStateException.class, () -> generator.generate(42, 0.1));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private String digest() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (String sql : List.of(
+                "select id, code, name, enrollment_count from courses order by id",
+                "select id, street, zip_code, city from addresses order by id",
+                "select id, name, email, address_id, created_at, updated_at from students order by id",
+                "select student_id, course_id from student_course order by student_id, course_id",
+                "select id, title, due_date, student_id from assignments order by id")) {
+            jdbcTemplate.query(sql, rs -> {
+                for (int column = 1; column <= rs.getMetaData().getColumnCount(); column++) {
+                    digest.update(String.valueOf(rs.getObject(column)).getBytes(StandardCharsets.UTF_8));
+                }
+            });
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
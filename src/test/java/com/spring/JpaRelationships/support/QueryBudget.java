@@ -0,0 +1,82 @@
+package com.spring.JpaRelationships.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Upper bounds on the statements a block of code may run, for catching N+1 regressions:
+ * <pre>
+ * QueryBudget.atMost().selects(2).inserts(0).verify(() -&gt; mockMvc.perform(get("/api/students/1")));
+ * </pre>
+ * Statement types without a bound are not checked. In a test transaction, writes only count
+ * once they are flushed inside the block.
+ */
+public final class QueryBudget {
+    private int selects = -1;
+    private int inserts = -1;
+    private int updates = -1;
+    private int deletes = -1;
+    private int total = -1;
+
+    private QueryBudget() {
+    }
+
+    public static QueryBudget atMost() {
+        return new QueryBudget();
+    }
+
+    public QueryBudget selects(int selects) {
+        this.selects = selects;
+        return this;
+    }
+
+    public QueryBudget inserts(int inserts) {
+        this.inserts = inserts;
+        return this;
+    }
+
+    public QueryBudget updates(int updates) {
+        this.updates = updates;
+        return this;
+    }
+
+    public QueryBudget deletes(int deletes) {
+        this.deletes = deletes;
+        return this;
+    }
+
+    /** Bounds inserts, updates and deletes to zero. */
+    public QueryBudget noWrites() {
+        return inserts(0).updates(0).deletes(0);
+    }
+
+    public QueryBudget total(int total) {
+        this.total = total;
+        return this;
+    }
+
+    public QueryCount verify(QueryCounter.ThrowingRunnable block) throws Exception {
+        QueryCount count = QueryCounter.count(block);
+
+        List<String> exceeded = new ArrayList<>();
+        check(exceeded, "selects", selects, count.selects());
+        check(exceeded, "inserts", inserts, count.inserts());
+        check(exceeded, "updates", updates, count.updates());
+        check(exceeded, "deletes", deletes, count.deletes());
+        check(exceeded, "statements", total, count.total());
+
+        if (!exceeded.isEmpty()) {
+            fail("Query budget exceeded: " + String.join(", ", exceeded) + "\n  "
+                    + String.join("\n  ", count.statements()));
+        }
+        return count;
+    }
+
+    private static void check(List<String> exceeded, String type, int budget, int actual) {
+        if (budget >= 0 && actual > budget) {
+            exceeded.add(actual + " " + type + " (at most " + budget + ")");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.spring.JpaRelationships.support;
+
+import java.util.List;
+
+/**
+ * JDBC statements executed by a block of code, by type. A JDBC batch counts as one statement, and
+ * sequence fetches for id generation count as {@code others}. {@code parameters} holds the bind values
+ * of each statement, in order; for a batch, those of its first entry.
+ */
+public record QueryCount(int selects, int inserts, int updates, int deletes, int others, List<String> statements,
+                         List<List<Object>> parameters) {
+
+    public int total() {
+        return selects + inserts + updates + deletes + others;
+    }
+}
@@ -0,0 +1,101 @@
+package com.spring.JpaRelationships.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Counts the statements that reach the proxied data source on the current thread. Only the
+ * thread running the block is counted, so background work such as the catalog refresh never
+ * leaks into a test's numbers.
+ */
+public final class QueryCounter implements QueryExecutionListener {
+    private static final ThreadLocal<Recording> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Recording recording = RECORDING.get();
+        if (recording != null) {
+            queryInfoList.forEach(queryInfo -> recording.add(queryInfo.getQuery(), parameters(queryInfo)));
+        }
+    }
+
+    private static List<Object> parameters(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        return queryInfo.getParametersList().get(0).stream()
+                .filter(operation -> operation.getArgs().length > 0 && operation.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparing(operation -> (Integer) operation.getArgs()[0]))
+                .map(QueryCounter::value)
+                .toList();
+    }
+
+    // setNull(index, sqlType) carries the type where the other setters carry the value
+    private static Object value(ParameterSetOperation operation) {
+        return ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1];
+    }
+
+    public static QueryCount count(ThrowingRunnable block) throws Exception {
+        Recording recording = new Recording();
+        RECORDING.set(recording);
+        try {
+            block.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return recording.toCount();
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static class Recording {
+        private final List<String> statements = new ArrayList<>();
+        private final List<List<Object>> parameters = new ArrayList<>();
+        private int selects;
+        private int inserts;
+        private int updates;
+        private int deletes;
+        private int others;
+
+        void add(String sql, List<Object> values) {
+            statements.add(sql);
+            parameters.add(values);
+            if (isSequenceFetch(sql)) {
+                others++;
+                return;
+            }
+            switch (QueryUtils.getQueryType(sql)) {
+                case SELECT -> selects++;
+                case INSERT -> inserts++;
+                case UPDATE -> updates++;
+                case DELETE -> deletes++;
+                default -> others++;
+            }
+        }
+
+        // Id allocation is pooled, so whether a block fetches the next value depends on what ran before it
+        private static boolean isSequenceFetch(String sql) {
+            String lower = sql.toLowerCase();
+            return lower.contains("next value for") || lower.contains("nextval(");
+        }
+
+        QueryCount toCount() {
+            return new QueryCount(selects, inserts, updates, deletes, others, List.copyOf(statements),
+                    List.copyOf(parameters));
+        }
+    }
+}
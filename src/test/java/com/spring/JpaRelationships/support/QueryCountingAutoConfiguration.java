@@ -0,0 +1,41 @@
+package com.spring.JpaRelationships.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Registered for every test application context through
+ * {@code META-INF/spring/...AutoConfiguration.imports} in the test resources, so
+ * {@link QueryBudget} sees every statement, whether it comes from Hibernate or a JdbcTemplate.
+ * Timing benchmarks switch it off with {@code query-budget.enabled=false}.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "query-budget.enabled", matchIfMissing = true)
+public class QueryCountingAutoConfiguration {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ProxyDataSource proxyDataSource) {
+                    proxyDataSource.addListener(new QueryCounter());
+                    return bean;
+                }
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryCounter())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}